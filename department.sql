@@ -1,7 +1,32 @@
+CREATE SEQUENCE IF NOT EXISTS department_id_seq
+    INCREMENT 50 START 1 MINVALUE 1 MAXVALUE 9223372036854775807 CACHE 1;
+
 CREATE TABLE IF NOT EXISTS department
 (
-    id bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY ( INCREMENT 1 START 1 MINVALUE 1 MAXVALUE 9223372036854775807 CACHE 1 ),
+    id bigint NOT NULL DEFAULT nextval('department_id_seq'),
     id_address bigint,
     name character varying(255) COLLATE pg_catalog."default",
+    version bigint NOT NULL DEFAULT 0,
+    updated_at timestamp with time zone DEFAULT CURRENT_TIMESTAMP,
+    name_lower character varying(255) GENERATED ALWAYS AS (lower(name)) STORED,
     CONSTRAINT department_pkey PRIMARY KEY (id)
-)
\ No newline at end of file
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS department_name_uindex
+    ON department USING btree (name);
+
+CREATE INDEX IF NOT EXISTS department_name_lower_index
+    ON department USING btree (name_lower text_pattern_ops);
+
+CREATE SEQUENCE IF NOT EXISTS department_change_seq
+    INCREMENT 1000 START 1 MINVALUE 1 MAXVALUE 9223372036854775807 CACHE 1;
+
+CREATE TABLE IF NOT EXISTS department_change
+(
+    seq bigint NOT NULL,
+    department_id bigint NOT NULL,
+    type character varying(16) NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default",
+    changed_at timestamp with time zone NOT NULL,
+    CONSTRAINT department_change_pkey PRIMARY KEY (seq)
+);
@@ -0,0 +1,67 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.CursorDemoDepartmentApp;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentListSnapshots;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentNameIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application, by default without a web server, against a private in-memory H2 database
+ * and fills the department table for benchmarks.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return start(WebApplicationType.NONE, database, properties);
+    }
+
+    /**
+     * Same as {@link #start(String, String...)} but with the embedded web server on a random port.
+     */
+    static ConfigurableApplicationContext startWeb(String database, String... properties) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(properties));
+        arguments.add("server.port=0");
+        return start(WebApplicationType.SERVLET, database, arguments.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String database,
+                                                        String... properties) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.show-sql=false",
+                "spring.sql.init.mode=never",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        arguments.addAll(Arrays.asList(properties));
+        // Passed as command line arguments so they override application.properties
+        return new SpringApplicationBuilder(CursorDemoDepartmentApp.class)
+                .web(webApplicationType)
+                .run(arguments.stream().map(argument -> "--" + argument).toArray(String[]::new));
+    }
+
+    /**
+     * Inserts departments with ids 1..rows in one statement and moves the id sequence past them.
+     */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM department");
+        jdbcTemplate.update("INSERT INTO department (id, id_address, name) "
+                + "SELECT X, X, 'Department ' || X FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ALTER SEQUENCE department_id_seq RESTART WITH " + (rows + 1));
+        // The rows bypassed Hibernate and the services, so nothing cached about the table is valid any more
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        context.getBean(DepartmentNameIndex.class).rebuild();
+        context.getBean(DepartmentListSnapshots.class).invalidate();
+    }
+} 
\ No newline at end of file
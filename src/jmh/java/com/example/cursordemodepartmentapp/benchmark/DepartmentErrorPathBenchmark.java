@@ -0,0 +1,212 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.controller.impl.DepartmentControllerImpl;
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+
+import java.io.Reader;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cost of the 200, 404 and 400 paths through DepartmentControllerImpl. The service is a stub that
+ * answers {@code depth} frames below the controller, roughly the proxy and interceptor chain of the
+ * real service, so the numbers isolate how failures are signalled. {@code current} answers misses
+ * and taken names with an empty Optional; {@code legacy} throws plain exceptions with stack traces as
+ * the service used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentErrorPathBenchmark {
+
+    private static final long EXISTING_ID = 1L;
+    private static final long MISSING_ID = 2L;
+
+    @Param({"current", "legacy"})
+    private String service;
+
+    @Param({"10", "30"})
+    private int depth;
+
+    private DepartmentControllerImpl controller;
+    private DepartmentInfo duplicate;
+
+    @Setup
+    public void setUp() {
+        controller = new DepartmentControllerImpl(new StubDepartmentService("legacy".equals(service), depth),
+                new ObjectMapper());
+        duplicate = new DepartmentInfo();
+        duplicate.setName("Duplicate");
+    }
+
+    @Benchmark
+    public ResponseEntity<DepartmentInfo> ok() {
+        return controller.getDepartment(EXISTING_ID);
+    }
+
+    @Benchmark
+    public ResponseEntity<DepartmentInfo> notFound() {
+        return controller.getDepartment(MISSING_ID);
+    }
+
+    @Benchmark
+    public ResponseEntity<Long> badRequest() {
+        return controller.createDepartment(duplicate);
+    }
+
+    private static final class StubDepartmentService implements DepartmentService {
+
+        private final boolean legacy;
+        private final int depth;
+        private final DepartmentInfo department = new DepartmentInfo();
+
+        StubDepartmentService(boolean legacy, int depth) {
+            this.legacy = legacy;
+            this.depth = depth;
+            department.setId(EXISTING_ID);
+            department.setName("Department 1");
+        }
+
+        @Override
+        public DepartmentInfo getCard(Long id) {
+            return findCard(id).orElseThrow(() -> new DepartmentNotFoundException("Department not found with id: " + id));
+        }
+
+        @Override
+        public Optional<DepartmentInfo> findCard(Long id) {
+            return findCard(id, depth);
+        }
+
+        private Optional<DepartmentInfo> findCard(Long id, int frames) {
+            if (frames > 0) {
+                return findCard(id, frames - 1);
+            }
+            if (id == EXISTING_ID) {
+                return Optional.of(department);
+            }
+            if (legacy) {
+                throw new RuntimeException("Department not found with id: " + id);
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public Long createCard(DepartmentInfo card) {
+            return createCardIfAbsent(card)
+                    .orElseThrow(() -> new DepartmentValidationException("Department with this name already exists"));
+        }
+
+        @Override
+        public Optional<Long> createCardIfAbsent(DepartmentInfo card) {
+            return createCardIfAbsent(card, depth);
+        }
+
+        private Optional<Long> createCardIfAbsent(DepartmentInfo card, int frames) {
+            if (frames > 0) {
+                return createCardIfAbsent(card, frames - 1);
+            }
+            if (legacy) {
+                throw new IllegalArgumentException("Department with this name already exists");
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public void updateCard(DepartmentInfo card) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteCard(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Long> createCards(List<DepartmentInfo> cards) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateCards(List<DepartmentInfo> cards) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteCards(List<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DepartmentImportReport importCards(Reader reader, String format, Consumer<DepartmentImportReport> progress) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DepartmentInfo> getAllCards() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DepartmentListSnapshot getAllCardsSnapshot() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getAllCardsETag() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DepartmentPage getCardsPage(String cursor, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DepartmentInfo> searchCards(String name, String match, String sort, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DepartmentInfo> suggestCards(String prefix, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<List<DepartmentChangeInfo>> getChanges(long since, int limit, int waitSeconds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Flux<DepartmentChangeInfo> streamChanges() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void forEachCard(Consumer<DepartmentInfo> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long exportCards(WritableByteChannel channel, String format, boolean gzip) {
+            throw new UnsupportedOperationException();
+        }
+    }
+} 
\ No newline at end of file
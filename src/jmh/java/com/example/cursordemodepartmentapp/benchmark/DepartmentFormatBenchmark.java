@@ -0,0 +1,64 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full department list in every format the controller negotiates. Payload sizes do not change
+ * between invocations, so they are printed once per trial instead of being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepartmentFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<DepartmentInfo> departments;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, DepartmentInfo.class);
+        departments = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            departments.add(new DepartmentInfo(id, "Department " + id, 0L, null));
+        }
+        payload = objectMapper.writeValueAsBytes(departments);
+        System.out.printf("%n%s payload for %d departments: %d bytes%n", format, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(departments);
+    }
+
+    @Benchmark
+    public List<DepartmentInfo> deserializeList() throws IOException {
+        return objectMapper.readValue(payload, listType);
+    }
+} 
\ No newline at end of file
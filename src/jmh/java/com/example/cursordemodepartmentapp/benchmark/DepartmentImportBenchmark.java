@@ -0,0 +1,65 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of {@code rows} new departments into an empty table, one whole file per measurement.
+ * The file is generated in memory, so parsing is measured but disk reads are not. The in-memory
+ * database holds every imported row, hence the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DepartmentImportBenchmark {
+
+    @Param({"csv", "ndjson"})
+    private String format;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DepartmentService departmentService;
+    private String file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("import-benchmark");
+        departmentService = context.getBean(DepartmentService.class);
+        StringBuilder builder = new StringBuilder(rows * 32);
+        builder.append(format.equals("csv") ? "name\n" : "");
+        for (int i = 1; i <= rows; i++) {
+            builder.append(format.equals("csv") ? "Imported " + i : "{\"name\":\"Imported " + i + "\"}").append('\n');
+        }
+        file = builder.toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        BenchmarkApplication.seed(context, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DepartmentImportReport importCards() {
+        DepartmentImportReport report = departmentService.importCards(new StringReader(file), format, progress -> {
+        });
+        if (report.getImported() != rows) {
+            throw new IllegalStateException("Imported " + report.getImported() + " of " + rows + " rows");
+        }
+        return report;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepartmentJsonBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<DepartmentInfo> departments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        departments = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(id);
+            departmentInfo.setName("Department " + id);
+            departments.add(departmentInfo);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(departments);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test comparing the default Tomcat platform thread pool with the
+ * {@code virtual} profile. Each of {@code clients} concurrent clients runs on its own virtual thread
+ * and repeatedly fetches a page of departments, which always goes to the database.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="1000 30 10000"}
+ * with arguments clients, measured seconds and seeded rows. Client and server share the JVM, so
+ * compare the two modes with each other rather than against absolute numbers.
+ */
+public final class DepartmentLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final String PATH = "/api/departments/page?size=50";
+
+    private DepartmentLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform", clients, duration, rows));
+        results.add(run("virtual", clients, duration, rows, "spring.profiles.active=virtual"));
+
+        System.out.printf("%n%-10s %8s %10s %12s %10s %10s %8s%n",
+                "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %8d %10d %12.1f %10.2f %10.2f %8d%n",
+                    result.mode, clients, result.latencies.length, result.throughput(duration),
+                    result.percentile(0.50), result.percentile(0.99), result.errors);
+        }
+    }
+
+    private static Result run(String mode, int clients, Duration duration, int rows, String... properties)
+            throws Exception {
+        ConfigurableApplicationContext context = BenchmarkApplication.startWeb("load-test-" + mode, properties);
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            BenchmarkApplication.seed(context, rows);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH)).build();
+
+            drive(httpClient, request, clients, WARMUP);
+            Result result = drive(httpClient, request, clients, duration);
+            result.mode = mode;
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(HttpClient httpClient, HttpRequest request, int clients, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Client>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> new Client().run(httpClient, request, deadline)));
+            }
+        }
+
+        Result result = new Result();
+        int total = 0;
+        List<Client> finished = new ArrayList<>(clients);
+        for (Future<Client> future : futures) {
+            Client client = future.get();
+            finished.add(client);
+            total += client.count;
+            result.errors += client.errors;
+        }
+        result.latencies = new long[total];
+        int offset = 0;
+        for (Client client : finished) {
+            System.arraycopy(client.latencies, 0, result.latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    private static final class Client {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Client run(HttpClient httpClient, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    private static final class Result {
+
+        private String mode;
+        private long[] latencies;
+        private int errors;
+
+        double throughput(Duration duration) {
+            return latencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The name lookup behind every create, read through the Hibernate query cache. {@code cold} evicts
+ * the query results first, so every call goes to H2 and pays for the cache put on top; {@code warm}
+ * reads whatever earlier calls left cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DepartmentSecondLevelCacheBenchmark {
+
+    @Param({"cold", "warm"})
+    private String cache;
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DepartmentRepository departmentRepository;
+    private TransactionTemplate transactionTemplate;
+    private Cache secondLevelCache;
+    private boolean cold;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("l2-cache-benchmark");
+        BenchmarkApplication.seed(context, rows);
+        departmentRepository = context.getBean(DepartmentRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        secondLevelCache = context.getBean(EntityManagerFactory.class).getCache().unwrap(Cache.class);
+        cold = "cold".equals(cache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsByName() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        if (cold) {
+            secondLevelCache.evictDefaultQueryRegion();
+        }
+        return transactionTemplate.execute(status -> departmentRepository.existsByName("Department " + id));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cursordemodepartmentapp.benchmark;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service hot paths against H2 holding {@code rows} departments. getCard picks random ids,
+ * so the card cache only absorbs the reads when the table fits into it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DepartmentServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DepartmentService departmentService;
+    private final AtomicLong createdNames = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service-benchmark");
+        BenchmarkApplication.seed(context, rows);
+        departmentService = context.getBean(DepartmentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DepartmentInfo getCard() {
+        return departmentService.getCard(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    @Benchmark
+    public Long createCard() {
+        DepartmentInfo card = new DepartmentInfo();
+        card.setName("Created " + createdNames.incrementAndGet());
+        return departmentService.createCard(card);
+    }
+
+    /**
+     * Case-insensitive prefix search through the name_lower index, returning at most ten cards.
+     */
+    @Benchmark
+    public List<DepartmentInfo> searchCardsByPrefix() {
+        return departmentService.searchCards("DEPARTMENT " + ThreadLocalRandom.current().nextLong(1, rows / 10 + 1),
+                "prefix", "name", 10);
+    }
+
+    /**
+     * The same lookup answered from the in-memory name index. Sampled, so JMH reports percentiles.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public List<DepartmentInfo> suggestCards() {
+        return departmentService.suggestCards("DEPARTMENT " + ThreadLocalRandom.current().nextLong(1, rows / 10 + 1), 10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<DepartmentInfo> getAllCards() {
+        return departmentService.getAllCards();
+    }
+
+    @Benchmark
+    public DepartmentListSnapshot getAllCardsSnapshot() {
+        return departmentService.getAllCardsSnapshot();
+    }
+} 
\ No newline at end of file
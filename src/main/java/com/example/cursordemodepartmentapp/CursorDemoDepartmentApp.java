@@ -2,8 +2,11 @@ package com.example.cursordemodepartmentapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// The reactive profile configures R2DBC itself, see ReactiveConfig
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class CursorDemoDepartmentApp {
     public static void main(String[] args) {
         SpringApplication.run(CursorDemoDepartmentApp.class, args);
@@ -0,0 +1,81 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Keeps a cache fill from outliving an eviction it raced. A reader can load a card before a writer
+ * commits and put it after the writer's after-commit eviction; without a fence that old card would
+ * then be served until it expires. Each miss remembers its key's stamp on the calling thread, each
+ * eviction raises the stamp, and a fill is only kept while the stamp still matches its miss.
+ * <p>
+ * Stamps are striped by key hash, so an eviction may also drop an unrelated fill, never keep a stale
+ * one. A fill that did not follow a miss on the same thread, such as one deferred past a second miss,
+ * is dropped too.
+ */
+public class CardCacheFence {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    private record Miss(Object key, long stamp) {
+    }
+
+    /**
+     * Looks the key up, remembering the stamp if it misses. The stamp is read first, so an eviction
+     * that lands during the lookup still counts against the fill.
+     */
+    public <T> T lookup(Object key, Function<Object, T> lookup) {
+        long stamp = stamps.get(stripe(key));
+        T value = lookup.apply(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, stamp));
+        }
+        return value;
+    }
+
+    /**
+     * Runs the put if no eviction has hit the key since this thread missed it, and undoes it if one
+     * lands while it runs. Returns whether the put was attempted.
+     */
+    public boolean fill(Object key, Runnable put, Runnable evict) {
+        Miss miss = lastMiss.get();
+        if (miss == null || !miss.key().equals(key)) {
+            return false;
+        }
+        lastMiss.remove();
+        int stripe = stripe(key);
+        if (stamps.get(stripe) != miss.stamp()) {
+            return false;
+        }
+        put.run();
+        // Raised before the eviction runs, so either this sees it or the eviction removes the entry
+        if (stamps.get(stripe) != miss.stamp()) {
+            evict.run();
+        }
+        return true;
+    }
+
+    /**
+     * Call before evicting the key.
+     */
+    public void invalidate(Object key) {
+        stamps.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * Call before clearing the cache.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache whose fills are guarded by a {@link CardCacheFence}. Still a {@link CaffeineCache}, so
+ * Boot binds its metrics as before.
+ */
+public class FencedCaffeineCache extends CaffeineCache {
+
+    private final CardCacheFence fence = new CardCacheFence();
+
+    public FencedCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return fence.lookup(key, super::lookup);
+    }
+
+    /**
+     * Loads outside Caffeine's atomic compute, which would fill the entry without the fence.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Throwable e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        fence.fill(key, () -> super.put(key, value), () -> super.evict(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper[] existing = new ValueWrapper[1];
+        fence.fill(key, () -> existing[0] = super.putIfAbsent(key, value), () -> super.evict(key));
+        return existing[0];
+    }
+
+    @Override
+    public void evict(Object key) {
+        fence.invalidate(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        fence.invalidate(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        fence.invalidateAll();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        fence.invalidateAll();
+        return super.invalidate();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Spring cache of department cards by id over an {@link OffHeapCardStore}. Every read hands out a fresh
+ * copy, so callers cannot change a cached card. Null values are not cached. Fills are guarded by a
+ * {@link CardCacheFence}, like the Caffeine cache's.
+ */
+public class OffHeapCardCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final OffHeapCardStore store;
+    private final CardCacheFence fence = new CardCacheFence();
+
+    public OffHeapCardCache(String name, OffHeapCardStore store) {
+        super(false);
+        this.name = name;
+        this.store = store;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public OffHeapCardStore getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return fence.lookup(key, k -> store.get(id(k)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Throwable e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!(toStoreValue(value) instanceof DepartmentInfo card)) {
+            throw new IllegalArgumentException("Cache '" + name + "' only holds DepartmentInfo, not " + value.getClass().getName());
+        }
+        long id = id(key);
+        fence.fill(key, () -> store.put(id, card), () -> store.remove(id));
+    }
+
+    @Override
+    public void evict(Object key) {
+        long id = id(key);
+        fence.invalidate(key);
+        store.remove(id);
+    }
+
+    @Override
+    public void clear() {
+        fence.invalidateAll();
+        store.clear();
+    }
+
+    private long id(Object key) {
+        if (key instanceof Long id) {
+            return id;
+        }
+        throw new IllegalArgumentException("Cache '" + name + "' is keyed by Long ids, not " + key);
+    }
+}
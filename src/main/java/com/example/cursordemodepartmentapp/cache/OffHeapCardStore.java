@@ -0,0 +1,482 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Department cards serialized into direct memory, found by id through an open-addressing index of
+ * primitive arrays, and evicted least recently used first once a byte budget is spent.
+ * <p>
+ * Memory is handed out in {@link #BLOCK_SIZE}-byte blocks from direct buffers allocated a megabyte at a
+ * time, up to the budget. A card takes a chain of blocks. Its first block also holds the id and its links
+ * in the LRU list, so the only per-card state on the heap is one slot in two primitive arrays, and the
+ * GC sees the same handful of objects however many cards are cached.
+ * <p>
+ * One lock guards the store, since even a read moves the card to the front of the LRU list.
+ */
+public class OffHeapCardStore {
+
+    static final int BLOCK_SIZE = 64;
+    static final int CHUNK_SIZE = 1 << 20;
+
+    private static final int BLOCKS_PER_CHUNK = CHUNK_SIZE / BLOCK_SIZE;
+    private static final int NONE = -1;
+
+    // Layout of every block
+    private static final int NEXT_BLOCK = 0;
+    private static final int BLOCK_DATA = 4;
+    // Layout of a card's first block
+    private static final int ID = 4;
+    private static final int LRU_PREVIOUS = 12;
+    private static final int LRU_NEXT = 16;
+    private static final int LENGTH = 20;
+    private static final int FIRST_BLOCK_DATA = 24;
+
+    private static final byte HAS_ID = 1;
+    private static final byte HAS_NAME = 2;
+    private static final byte HAS_VERSION = 4;
+    private static final byte HAS_UPDATED_AT = 8;
+    private static final int MAX_HEADER_LENGTH = 1 + 8 + 8 + 8 + 4;
+
+    private static final int INITIAL_INDEX_CAPACITY = 16;
+
+    private final long maxBlocks;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private long allocatedBlocks;
+    private int nextFreshBlock;
+    private int freeList = NONE;
+    private int freeBlocks;
+
+    private long[] indexIds = new long[INITIAL_INDEX_CAPACITY];
+    private int[] indexBlocks = emptyIndex(INITIAL_INDEX_CAPACITY);
+    private int size;
+
+    private int lruHead = NONE;
+    private int lruTail = NONE;
+
+    private byte[] scratch = new byte[BLOCK_SIZE * 4];
+
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+
+    public OffHeapCardStore(long maxBytes) {
+        if (maxBytes < BLOCK_SIZE) {
+            throw new IllegalArgumentException("Off-heap cache needs at least " + BLOCK_SIZE + " bytes");
+        }
+        maxBlocks = Math.min(maxBytes / BLOCK_SIZE, Integer.MAX_VALUE);
+    }
+
+    public DepartmentInfo get(long id) {
+        lock.lock();
+        try {
+            int block = find(id);
+            if (block == NONE) {
+                misses++;
+                return null;
+            }
+            hits++;
+            unlink(block);
+            linkFirst(block);
+            return decode(block);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the card under the id, replacing any earlier one and evicting the least recently used cards
+     * to make room. Returns false, leaving no card under the id, when the card is larger than the budget.
+     */
+    public boolean put(long id, DepartmentInfo card) {
+        lock.lock();
+        try {
+            remove(id);
+            int length = encode(card);
+            int blocks = blocksFor(length);
+            if (!reserve(blocks)) {
+                return false;
+            }
+            int first = write(length);
+            chunk(first).putLong(offset(first) + ID, id);
+            linkFirst(first);
+            insertIndex(id, first);
+            puts++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.lock();
+        try {
+            int block = find(id);
+            if (block == NONE) {
+                return false;
+            }
+            removeIndex(id);
+            unlink(block);
+            release(block);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every card but keeps the direct buffers for the ones cached next.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            indexIds = new long[INITIAL_INDEX_CAPACITY];
+            indexBlocks = emptyIndex(INITIAL_INDEX_CAPACITY);
+            size = 0;
+            lruHead = NONE;
+            lruTail = NONE;
+            nextFreshBlock = 0;
+            freeList = NONE;
+            freeBlocks = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes in blocks that hold cards.
+     */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return (long) (nextFreshBlock - freeBlocks) * BLOCK_SIZE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Direct memory allocated so far, never more than the budget.
+     */
+    public long allocatedBytes() {
+        lock.lock();
+        try {
+            return allocatedBlocks * BLOCK_SIZE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long missCount() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long putCount() {
+        lock.lock();
+        try {
+            return puts;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long evictionCount() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Serialization: flags, then id, version and updatedAt when present, then the UTF-8 name to the end
+
+    private int encode(DepartmentInfo card) {
+        byte[] name = card.getName() == null ? null : card.getName().getBytes(StandardCharsets.UTF_8);
+        int length = MAX_HEADER_LENGTH + (name == null ? 0 : name.length);
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(scratch);
+        byte flags = 0;
+        buffer.put((byte) 0);
+        if (card.getId() != null) {
+            flags |= HAS_ID;
+            buffer.putLong(card.getId());
+        }
+        if (card.getVersion() != null) {
+            flags |= HAS_VERSION;
+            buffer.putLong(card.getVersion());
+        }
+        if (card.getUpdatedAt() != null) {
+            flags |= HAS_UPDATED_AT;
+            buffer.putLong(card.getUpdatedAt().getEpochSecond()).putInt(card.getUpdatedAt().getNano());
+        }
+        if (name != null) {
+            flags |= HAS_NAME;
+            buffer.put(name);
+        }
+        buffer.put(0, flags);
+        return buffer.position();
+    }
+
+    private DepartmentInfo decode(int first) {
+        int length = chunk(first).getInt(offset(first) + LENGTH);
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int copied = 0;
+        int block = first;
+        int data = FIRST_BLOCK_DATA;
+        while (copied < length) {
+            int count = Math.min(BLOCK_SIZE - data, length - copied);
+            chunk(block).get(offset(block) + data, scratch, copied, count);
+            copied += count;
+            block = chunk(block).getInt(offset(block) + NEXT_BLOCK);
+            data = BLOCK_DATA;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(scratch, 0, length);
+        byte flags = buffer.get();
+        DepartmentInfo card = new DepartmentInfo();
+        if ((flags & HAS_ID) != 0) {
+            card.setId(buffer.getLong());
+        }
+        if ((flags & HAS_VERSION) != 0) {
+            card.setVersion(buffer.getLong());
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            card.setUpdatedAt(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+        }
+        if ((flags & HAS_NAME) != 0) {
+            card.setName(new String(scratch, buffer.position(), length - buffer.position(), StandardCharsets.UTF_8));
+        }
+        return card;
+    }
+
+    static int blocksFor(int length) {
+        int rest = length - (BLOCK_SIZE - FIRST_BLOCK_DATA);
+        return rest <= 0 ? 1 : 1 + (rest + BLOCK_SIZE - BLOCK_DATA - 1) / (BLOCK_SIZE - BLOCK_DATA);
+    }
+
+    // Blocks
+
+    /**
+     * Makes sure that many blocks can be taken, growing into the budget before evicting anything.
+     */
+    private boolean reserve(int blocks) {
+        if (blocks > maxBlocks) {
+            return false;
+        }
+        while (freeBlocks + (allocatedBlocks - nextFreshBlock) < blocks) {
+            if (allocatedBlocks < maxBlocks) {
+                allocateChunk();
+            } else {
+                evictLast();
+            }
+        }
+        return true;
+    }
+
+    private void allocateChunk() {
+        int blocks = (int) Math.min(BLOCKS_PER_CHUNK, maxBlocks - allocatedBlocks);
+        chunks = Arrays.copyOf(chunks, chunks.length + 1);
+        chunks[chunks.length - 1] = ByteBuffer.allocateDirect(blocks * BLOCK_SIZE);
+        allocatedBlocks += blocks;
+    }
+
+    private int take() {
+        if (freeList != NONE) {
+            int block = freeList;
+            freeList = chunk(block).getInt(offset(block) + NEXT_BLOCK);
+            freeBlocks--;
+            return block;
+        }
+        return nextFreshBlock++;
+    }
+
+    private int write(int length) {
+        int first = take();
+        ByteBuffer chunk = chunk(first);
+        chunk.putInt(offset(first) + LENGTH, length);
+        int written = 0;
+        int block = first;
+        int data = FIRST_BLOCK_DATA;
+        while (true) {
+            int count = Math.min(BLOCK_SIZE - data, length - written);
+            chunk(block).put(offset(block) + data, scratch, written, count);
+            written += count;
+            if (written == length) {
+                chunk(block).putInt(offset(block) + NEXT_BLOCK, NONE);
+                return first;
+            }
+            int next = take();
+            chunk(block).putInt(offset(block) + NEXT_BLOCK, next);
+            block = next;
+            data = BLOCK_DATA;
+        }
+    }
+
+    private void release(int first) {
+        int block = first;
+        while (block != NONE) {
+            int next = chunk(block).getInt(offset(block) + NEXT_BLOCK);
+            chunk(block).putInt(offset(block) + NEXT_BLOCK, freeList);
+            freeList = block;
+            freeBlocks++;
+            block = next;
+        }
+    }
+
+    private ByteBuffer chunk(int block) {
+        return chunks[block / BLOCKS_PER_CHUNK];
+    }
+
+    private static int offset(int block) {
+        return (block % BLOCKS_PER_CHUNK) * BLOCK_SIZE;
+    }
+
+    // LRU list, most recently used first
+
+    private void linkFirst(int block) {
+        chunk(block).putInt(offset(block) + LRU_PREVIOUS, NONE);
+        chunk(block).putInt(offset(block) + LRU_NEXT, lruHead);
+        if (lruHead != NONE) {
+            chunk(lruHead).putInt(offset(lruHead) + LRU_PREVIOUS, block);
+        } else {
+            lruTail = block;
+        }
+        lruHead = block;
+    }
+
+    private void unlink(int block) {
+        int previous = chunk(block).getInt(offset(block) + LRU_PREVIOUS);
+        int next = chunk(block).getInt(offset(block) + LRU_NEXT);
+        if (previous != NONE) {
+            chunk(previous).putInt(offset(previous) + LRU_NEXT, next);
+        } else {
+            lruHead = next;
+        }
+        if (next != NONE) {
+            chunk(next).putInt(offset(next) + LRU_PREVIOUS, previous);
+        } else {
+            lruTail = previous;
+        }
+    }
+
+    private void evictLast() {
+        int block = lruTail;
+        removeIndex(chunk(block).getLong(offset(block) + ID));
+        unlink(block);
+        release(block);
+        evictions++;
+    }
+
+    // Index from id to first block, linear probing
+
+    private int find(long id) {
+        int mask = indexBlocks.length - 1;
+        for (int slot = slot(id, mask); indexBlocks[slot] != NONE; slot = (slot + 1) & mask) {
+            if (indexIds[slot] == id) {
+                return indexBlocks[slot];
+            }
+        }
+        return NONE;
+    }
+
+    private void insertIndex(long id, int block) {
+        if ((size + 1) * 4L > indexBlocks.length * 3L) {
+            resizeIndex(indexBlocks.length * 2);
+        }
+        int mask = indexBlocks.length - 1;
+        int slot = slot(id, mask);
+        while (indexBlocks[slot] != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        indexIds[slot] = id;
+        indexBlocks[slot] = block;
+        size++;
+    }
+
+    /**
+     * Removes the id and shifts later entries of its probe run back, so lookups never need tombstones.
+     */
+    private void removeIndex(long id) {
+        int mask = indexBlocks.length - 1;
+        int slot = slot(id, mask);
+        while (indexIds[slot] != id || indexBlocks[slot] == NONE) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; indexBlocks[next] != NONE; next = (next + 1) & mask) {
+            int home = slot(indexIds[next], mask);
+            // Move the entry into the hole unless its home lies cyclically after the hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                indexIds[hole] = indexIds[next];
+                indexBlocks[hole] = indexBlocks[next];
+                hole = next;
+            }
+        }
+        indexBlocks[hole] = NONE;
+        size--;
+    }
+
+    private void resizeIndex(int capacity) {
+        long[] ids = indexIds;
+        int[] blocks = indexBlocks;
+        indexIds = new long[capacity];
+        indexBlocks = emptyIndex(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] != NONE) {
+                int slot = slot(ids[i], mask);
+                while (indexBlocks[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                indexIds[slot] = ids[i];
+                indexBlocks[slot] = blocks[i];
+            }
+        }
+    }
+
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int[] emptyIndex(int capacity) {
+        int[] blocks = new int[capacity];
+        Arrays.fill(blocks, NONE);
+        return blocks;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Exports every department to a file at startup, for example
+ * {@code java -jar app.jar --spring.main.web-application-type=none --app.export.file=departments.ndjson.gz}.
+ * The format and compression follow the extension as for imports, unless {@code app.export.format}
+ * names the format. An existing file is overwritten, and the row count is logged once it is written.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(DepartmentExportRunner.FILE_PROPERTY)
+@RequiredArgsConstructor
+public class DepartmentExportRunner implements ApplicationRunner {
+
+    static final String FILE_PROPERTY = "app.export.file";
+    static final String FORMAT_PROPERTY = "app.export.format";
+
+    private final DepartmentService departmentService;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Path.of(environment.getRequiredProperty(FILE_PROPERTY));
+        String format = environment.getProperty(FORMAT_PROPERTY);
+        if (format == null) {
+            format = DepartmentFiles.formatOf(file, FORMAT_PROPERTY);
+        }
+        long started = System.nanoTime();
+        long rows;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            rows = departmentService.exportCards(channel, format, DepartmentFiles.isGzipped(file));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("{} rows written to {} in {} ms", rows, file, elapsed.toMillis());
+    }
+}
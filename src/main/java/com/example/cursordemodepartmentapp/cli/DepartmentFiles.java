@@ -0,0 +1,41 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * How the command-line modes read a department file's name: {@code .csv}, {@code .ndjson} or
+ * {@code .jsonl}, each optionally followed by {@code .gz}.
+ */
+final class DepartmentFiles {
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private DepartmentFiles() {
+    }
+
+    static boolean isGzipped(Path file) {
+        return name(file).endsWith(GZIP_EXTENSION);
+    }
+
+    /**
+     * The format named by the extension, or a failure pointing at {@code formatProperty}.
+     */
+    static String formatOf(Path file, String formatProperty) {
+        String name = name(file);
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        if (name.endsWith(".csv")) {
+            return "csv";
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return "ndjson";
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + ", set " + formatProperty);
+    }
+
+    private static String name(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT);
+    }
+}
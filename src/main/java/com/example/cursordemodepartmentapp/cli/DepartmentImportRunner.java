@@ -0,0 +1,89 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentImportError;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports a department file at startup, for example
+ * {@code java -jar app.jar --spring.main.web-application-type=none --app.import.file=departments.csv.gz}.
+ * The format follows the extension ({@code .csv}, {@code .ndjson} or {@code .jsonl}, optionally gzipped)
+ * unless {@code app.import.format} names it. Progress is logged every {@value #PROGRESS_INTERVAL} rows,
+ * then the rejected rows as warnings.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(DepartmentImportRunner.FILE_PROPERTY)
+@RequiredArgsConstructor
+public class DepartmentImportRunner implements ApplicationRunner {
+
+    static final String FILE_PROPERTY = "app.import.file";
+    static final String FORMAT_PROPERTY = "app.import.format";
+    static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final DepartmentService departmentService;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Path.of(environment.getRequiredProperty(FILE_PROPERTY));
+        String format = environment.getProperty(FORMAT_PROPERTY);
+        if (format == null) {
+            format = DepartmentFiles.formatOf(file, FORMAT_PROPERTY);
+        }
+        long started = System.nanoTime();
+        AtomicLong logged = new AtomicLong();
+        DepartmentImportReport report;
+        try (Reader reader = reader(file)) {
+            report = departmentService.importCards(reader, format, progress -> {
+                if (progress.getProcessed() / PROGRESS_INTERVAL > logged.get()) {
+                    logged.set(progress.getProcessed() / PROGRESS_INTERVAL);
+                    log(progress, started);
+                }
+            });
+        }
+        log(report, started);
+        for (DepartmentImportError error : report.getErrors()) {
+            log.warn("line {}: {}{}", error.getLine(), error.getMessage(),
+                    error.getName() == null ? "" : " (" + error.getName() + ")");
+        }
+        if (report.getErrors().size() < report.getRejected()) {
+            log.warn("... and {} more rejected rows", report.getRejected() - report.getErrors().size());
+        }
+    }
+
+    private static Reader reader(Path file) throws IOException {
+        InputStream input = Files.newInputStream(file);
+        if (DepartmentFiles.isGzipped(file)) {
+            input = new GZIPInputStream(input, READ_BUFFER_SIZE);
+        }
+        return new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    private static void log(DepartmentImportReport report, long started) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("{} rows read, {} imported, {} rejected in {} ms ({} rows/s)",
+                report.getProcessed(), report.getImported(), report.getRejected(), elapsed.toMillis(),
+                report.getProcessed() * 1000 / Math.max(elapsed.toMillis(), 1));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.cursordemodepartmentapp.config;
+
+import com.example.cursordemodepartmentapp.cache.FencedCaffeineCache;
+import com.example.cursordemodepartmentapp.cache.OffHeapCardCache;
+import com.example.cursordemodepartmentapp.cache.OffHeapCardStore;
+import com.example.cursordemodepartmentapp.metrics.OffHeapCardCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String DEPARTMENT_CACHE = "departments";
+    public static final String OFF_HEAP_PROFILE = "offheap";
+
+    /**
+     * Caffeine-backed cache of department cards, sized and expired by {@code spring.cache.caffeine.spec}.
+     * Puts and evictions are deferred until the surrounding transaction commits, so an entry is never
+     * dropped before the write that replaces it is visible to the next reader, and each cache is fenced
+     * so a read that raced the write cannot put the old card back afterwards.
+     */
+    @Bean
+    @Profile("!" + OFF_HEAP_PROFILE)
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new FencedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCacheNames(List.of(DEPARTMENT_CACHE));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    /**
+     * The same cache with cards serialized into direct memory, for heaps where a large cache lengthens
+     * GC pauses. Bounded by {@code app.cache.off-heap.max-size} and least-recently-used eviction, without
+     * expiry; deferred to commit like the Caffeine one.
+     */
+    @Bean
+    @Profile(OFF_HEAP_PROFILE)
+    public CacheManager offHeapCacheManager(@Value("${app.cache.off-heap.max-size}") DataSize maxSize) {
+        SimpleCacheManager simpleCacheManager = new SimpleCacheManager();
+        simpleCacheManager.setCaches(List.of(new OffHeapCardCache(DEPARTMENT_CACHE, new OffHeapCardStore(maxSize.toBytes()))));
+        simpleCacheManager.initializeCaches();
+        return new TransactionAwareCacheManagerProxy(simpleCacheManager);
+    }
+
+    @Bean
+    @Profile(OFF_HEAP_PROFILE)
+    public CacheMeterBinderProvider<OffHeapCardCache> offHeapCardCacheMeterBinderProvider() {
+        return OffHeapCardCacheMetrics::new;
+    }
+}
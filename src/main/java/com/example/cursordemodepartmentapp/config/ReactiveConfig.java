@@ -0,0 +1,72 @@
+package com.example.cursordemodepartmentapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking stack enabled by the {@code reactive} profile. The R2DBC connection factory opens the
+ * same H2 database as the JDBC data source, so Hibernate still owns the schema and both stacks see
+ * the same rows.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        // Tomcat is on the classpath for the servlet stack; serve the reactive one from Netty event loops
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Spring Boot backs off its own data source once a {@link ConnectionFactory} bean exists,
+     * but JPA still needs one for the schema and the blocking service.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ConnectionFactory connectionFactory(DataSourceProperties dataSourceProperties) {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(JDBC_H2_PREFIX)) {
+            throw new IllegalStateException("Reactive profile requires an H2 data source, got: " + url);
+        }
+        return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(JDBC_H2_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Built from a transaction manager that is deliberately not a bean, so {@code @Transactional}
+     * on the blocking service keeps resolving to the single JPA transaction manager.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+} 
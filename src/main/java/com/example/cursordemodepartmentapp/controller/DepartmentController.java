@@ -1,16 +1,61 @@
 package com.example.cursordemodepartmentapp.controller;
 
+import com.example.cursordemodepartmentapp.config.BinaryFormatConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RequestMapping("/api/departments")
 public interface DepartmentController {
+
+    String TEXT_CSV_VALUE = "text/csv";
     
     @GetMapping
-    ResponseEntity<List<DepartmentInfo>> getAllDepartments();
+    ResponseEntity<byte[]> getAllDepartments(WebRequest webRequest);
+
+    @GetMapping(produces = {BinaryFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    ResponseEntity<List<DepartmentInfo>> getAllDepartmentsAsBinary(WebRequest webRequest);
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamAllDepartments();
+
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportDepartments(@RequestParam(defaultValue = "csv") String format,
+                                                            WebRequest webRequest);
+
+    @GetMapping("/page")
+    ResponseEntity<DepartmentPage> getDepartmentPage(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "100") int size);
+
+    @GetMapping("/search")
+    ResponseEntity<List<DepartmentInfo>> searchDepartments(@RequestParam String name,
+                                                           @RequestParam(defaultValue = "prefix") String match,
+                                                           @RequestParam(defaultValue = "name") String sort,
+                                                           @RequestParam(defaultValue = "100") int limit);
+
+    @GetMapping("/suggest")
+    ResponseEntity<List<DepartmentInfo>> suggestDepartments(@RequestParam String prefix,
+                                                            @RequestParam(defaultValue = "10") int limit);
+    
+    @GetMapping("/changes")
+    DeferredResult<ResponseEntity<List<DepartmentChangeInfo>>> getDepartmentChanges(@RequestParam long since,
+                                                                                    @RequestParam(defaultValue = "100") int limit,
+                                                                                    @RequestParam(defaultValue = "0") int wait);
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamDepartmentChanges();
     
     @GetMapping("/{id}")
     ResponseEntity<DepartmentInfo> getDepartment(@PathVariable Long id);
@@ -23,4 +68,17 @@ public interface DepartmentController {
     
     @DeleteMapping("/{id}")
     ResponseEntity<Void> deleteDepartment(@PathVariable Long id);
+
+    @PostMapping("/batch")
+    ResponseEntity<List<Long>> createDepartments(@RequestBody List<DepartmentInfo> departmentInfos);
+
+    @PutMapping("/batch")
+    ResponseEntity<Void> updateDepartments(@RequestBody List<DepartmentInfo> departmentInfos);
+
+    @DeleteMapping("/batch")
+    ResponseEntity<Void> deleteDepartments(@RequestBody List<Long> ids);
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<DepartmentImportReport> importDepartments(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream body);
 } 
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.cursordemodepartmentapp.controller;
+
+import com.example.cursordemodepartmentapp.config.BinaryFormatConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux version of {@link DepartmentController} serving the same paths, status codes and bodies.
+ */
+@RequestMapping("/api/departments")
+public interface ReactiveDepartmentController {
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    Mono<ResponseEntity<List<DepartmentInfo>>> getAllDepartments(ServerWebExchange exchange);
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    Mono<ResponseEntity<Flux<DepartmentInfo>>> streamAllDepartments();
+
+    @GetMapping(produces = {BinaryFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    Mono<ResponseEntity<List<DepartmentInfo>>> getAllDepartmentsAsBinary(ServerWebExchange exchange);
+
+    /**
+     * Not served by this stack: the exporter and importer are built on JPA and JDBC, which the reactive
+     * profile does not run. Answers 501 rather than a 404 or 405 that reads like a bad request.
+     */
+    @GetMapping("/export")
+    Mono<ResponseEntity<Void>> exportDepartments();
+
+    @PostMapping("/import")
+    Mono<ResponseEntity<Void>> importDepartments();
+
+    @GetMapping("/page")
+    Mono<ResponseEntity<DepartmentPage>> getDepartmentPage(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "100") int size);
+
+    @GetMapping("/search")
+    Mono<ResponseEntity<List<DepartmentInfo>>> searchDepartments(@RequestParam String name,
+                                                                 @RequestParam(defaultValue = "prefix") String match,
+                                                                 @RequestParam(defaultValue = "name") String sort,
+                                                                 @RequestParam(defaultValue = "100") int limit);
+
+    @GetMapping("/suggest")
+    Mono<ResponseEntity<List<DepartmentInfo>>> suggestDepartments(@RequestParam String prefix,
+                                                                  @RequestParam(defaultValue = "10") int limit);
+
+    /**
+     * Not served by this stack: its writes go through R2DBC, which the change feed does not see, so any
+     * feed here would silently miss them. Answers 501 rather than reading "changes" as an id.
+     */
+    @GetMapping({"/changes", "/stream"})
+    Mono<ResponseEntity<Void>> getDepartmentChanges();
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<DepartmentInfo>> getDepartment(@PathVariable Long id);
+
+    @PostMapping
+    Mono<ResponseEntity<Long>> createDepartment(@RequestBody DepartmentInfo departmentInfo);
+
+    @PutMapping("/{id}")
+    Mono<ResponseEntity<Void>> updateDepartment(@PathVariable Long id, @RequestBody DepartmentInfo departmentInfo);
+
+    @DeleteMapping("/{id}")
+    Mono<ResponseEntity<Void>> deleteDepartment(@PathVariable Long id);
+
+    @PostMapping("/batch")
+    Mono<ResponseEntity<List<Long>>> createDepartments(@RequestBody List<DepartmentInfo> departmentInfos);
+
+    @PutMapping("/batch")
+    Mono<ResponseEntity<Void>> updateDepartments(@RequestBody List<DepartmentInfo> departmentInfos);
+
+    @DeleteMapping("/batch")
+    Mono<ResponseEntity<Void>> deleteDepartments(@RequestBody List<Long> ids);
+} 
\ No newline at end of file
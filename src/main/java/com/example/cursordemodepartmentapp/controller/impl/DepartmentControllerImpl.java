@@ -1,28 +1,75 @@
 package com.example.cursordemodepartmentapp.controller.impl;
 
 import com.example.cursordemodepartmentapp.controller.DepartmentController;
+import com.example.cursordemodepartmentapp.config.BinaryFormatConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.exception.DepartmentChangesExpiredException;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
 import com.example.cursordemodepartmentapp.service.DepartmentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/departments")
 @RequiredArgsConstructor
 public class DepartmentControllerImpl implements DepartmentController {
 
+    private static final String GZIP = "gzip";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+    private static final String BINARY_ETAG_SUFFIX = "-binary";
+    private static final long CHANGE_WAIT_GRACE_MILLIS = 5000;
+    private static final long STREAM_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+    private static final Duration STREAM_HEARTBEAT = Duration.ofSeconds(15);
+
     private final DepartmentService departmentService;
+    private final ObjectMapper objectMapper;
 
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<DepartmentInfo> getDepartment(@PathVariable Long id) {
         try {
-            DepartmentInfo department = departmentService.getCard(id);
-            return ResponseEntity.ok(department);
+            // A matching If-None-Match or If-Modified-Since turns this into a 304 before the body is written
+            return departmentService.findCard(id)
+                    .map(DepartmentControllerImpl::withValidators)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -35,11 +82,13 @@ public class DepartmentControllerImpl implements DepartmentController {
             if (departmentInfo == null || departmentInfo.getName() == null || departmentInfo.getName().trim().isEmpty() || departmentInfo.getName().length() > 255) {
                 return ResponseEntity.badRequest().build();
             }
-            Long id = departmentService.createCard(departmentInfo);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .header("Location", "/api/departments/" + id)
-                    .body(id);
-        } catch (IllegalArgumentException e) {
+            // A taken name comes back empty rather than thrown, so the usual 400 costs no unwinding
+            return departmentService.createCardIfAbsent(departmentInfo)
+                    .map(id -> ResponseEntity.status(HttpStatus.CREATED)
+                            .header("Location", "/api/departments/" + id)
+                            .body(id))
+                    .orElseGet(() -> ResponseEntity.badRequest().build());
+        } catch (DepartmentValidationException | DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -61,8 +110,10 @@ public class DepartmentControllerImpl implements DepartmentController {
             }
             departmentService.updateCard(departmentInfo);
             return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
+        } catch (DepartmentValidationException | DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().build();
+        } catch (DepartmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -81,14 +132,338 @@ public class DepartmentControllerImpl implements DepartmentController {
         }
     }
 
+    @Override
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createDepartments(@RequestBody List<DepartmentInfo> departmentInfos) {
+        try {
+            List<Long> ids = departmentService.createCards(departmentInfos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+        } catch (DepartmentValidationException | DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @PutMapping("/batch")
+    public ResponseEntity<Void> updateDepartments(@RequestBody List<DepartmentInfo> departmentInfos) {
+        try {
+            departmentService.updateCards(departmentInfos);
+            return ResponseEntity.noContent().build();
+        } catch (DepartmentValidationException | DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @DeleteMapping("/batch")
+    public ResponseEntity<Void> deleteDepartments(@RequestBody List<Long> ids) {
+        try {
+            departmentService.deleteCards(ids);
+            return ResponseEntity.noContent().build();
+        } catch (DepartmentValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Reads the body as it arrives, so the file is never held in memory. Rows that cannot be imported do
+     * not fail the request; the report lists them by line.
+     */
+    @Override
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<DepartmentImportReport> importDepartments(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                    InputStream body) {
+        try {
+            String format = TEXT_CSV.isCompatibleWith(contentType) ? "csv" : "ndjson";
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            return ResponseEntity.ok(departmentService.importCards(new InputStreamReader(body, charset), format, report -> {
+            }));
+        } catch (DepartmentValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * JSON list written straight from the pre-serialized snapshot, gzipped when the client accepts it.
+     * Each encoding is its own representation, so the gzipped one gets its own ETag.
+     */
     @Override
     @GetMapping
-    public ResponseEntity<List<DepartmentInfo>> getAllDepartments() {
+    public ResponseEntity<byte[]> getAllDepartments(WebRequest webRequest) {
+        try {
+            DepartmentListSnapshot snapshot = departmentService.getAllCardsSnapshot();
+            boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            String eTag = gzip ? snapshot.getETag() + GZIP_ETAG_SUFFIX : snapshot.getETag();
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            return response.body(gzip ? snapshot.getGzippedJson() : snapshot.getJson());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @GetMapping(produces = {BinaryFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<DepartmentInfo>> getAllDepartmentsAsBinary(WebRequest webRequest) {
         try {
+            // Checked against one aggregate query, so an unchanged collection is never loaded
+            String eTag = binaryListETag(departmentService.getAllCardsETag());
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
             List<DepartmentInfo> departments = departmentService.getAllCards();
-            return ResponseEntity.ok(departments);
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(departments);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDepartments() {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                departmentService.forEachCard(department -> {
+                    try {
+                        writer.writeValue(generator, department);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Full dump for offline use, streamed from a database cursor without building the list, and gzipped
+     * when the client accepts it. Unlike the list endpoints it is never cached or tagged.
+     */
+    @Override
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDepartments(@RequestParam(defaultValue = "csv") String format,
+                                                                   WebRequest webRequest) {
+        MediaType mediaType = switch (format) {
+            case "csv" -> TEXT_CSV;
+            case "ndjson" -> MediaType.APPLICATION_NDJSON;
+            default -> null;
+        };
+        if (mediaType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        StreamingResponseBody body = outputStream ->
+                departmentService.exportCards(Channels.newChannel(outputStream), format, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("departments." + format)
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    @Override
+    @GetMapping("/page")
+    public ResponseEntity<DepartmentPage> getDepartmentPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(departmentService.getCardsPage(cursor, size));
+        } catch (DepartmentValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @GetMapping("/search")
+    public ResponseEntity<List<DepartmentInfo>> searchDepartments(@RequestParam String name,
+                                                                  @RequestParam(defaultValue = "prefix") String match,
+                                                                  @RequestParam(defaultValue = "name") String sort,
+                                                                  @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(departmentService.searchCards(name, match, sort, limit));
+        } catch (DepartmentValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @GetMapping("/suggest")
+    public ResponseEntity<List<DepartmentInfo>> suggestDepartments(@RequestParam String prefix,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(departmentService.suggestCards(prefix, limit));
+        } catch (DepartmentValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Long poll: with {@code wait} seconds given and nothing after {@code since} yet, the response is held
+     * without a request thread until a write commits, then sent with the new changes, or empty once the
+     * wait is over. A {@code since} older than the retained log is answered with 410, telling the client
+     * to reload the list.
+     */
+    @Override
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<List<DepartmentChangeInfo>>> getDepartmentChanges(@RequestParam long since,
+                                                                                           @RequestParam(defaultValue = "100") int limit,
+                                                                                           @RequestParam(defaultValue = "0") int wait) {
+        // The service ends the wait itself; this timeout only covers a feed that never answers
+        DeferredResult<ResponseEntity<List<DepartmentChangeInfo>>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(Math.max(wait, 0)) + CHANGE_WAIT_GRACE_MILLIS, ResponseEntity.ok(List.of()));
+        try {
+            CompletableFuture<List<DepartmentChangeInfo>> changes = departmentService.getChanges(since, limit, wait);
+            // A client that goes away stops waiting too
+            result.onCompletion(() -> changes.cancel(false));
+            changes.whenComplete((list, e) -> result.setResult(e == null
+                    ? ResponseEntity.ok(list)
+                    : changesFailed(e)));
+        } catch (Exception e) {
+            result.setResult(changesFailed(e));
+        }
+        return result;
+    }
+
+    /**
+     * Same statuses whether the feed refuses {@code since} up front or fails the wait later: 400 for a
+     * malformed request, 410 for a log that no longer reaches back that far, 500 for anything else.
+     */
+    static <T> ResponseEntity<T> changesFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof DepartmentValidationException || cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (cause instanceof DepartmentChangesExpiredException) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+
+    /**
+     * Server-sent events, one per committed change, with the sequence number as event id. Each client is
+     * written by a single worker, so a slow one only fills its own buffer; once that overflows the stream
+     * ends and the client catches up through /changes from the last id it got. Comments sent between
+     * changes keep idle connections open through proxies.
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDepartmentChanges() {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Disposable events = streamEvents(departmentService.streamChanges(), STREAM_HEARTBEAT)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(event -> send(emitter, event),
+                        emitter::completeWithError,
+                        emitter::complete);
+        emitter.onCompletion(events::dispose);
+        return emitter;
+    }
+
+    /**
+     * Changes merged with heartbeat comments into one sequence, so both are written by the same worker
+     * and never from the timer thread. Heartbeats stop when the changes end, and are dropped rather than
+     * queued while the client is not keeping up.
+     */
+    static Flux<SseEmitter.SseEventBuilder> streamEvents(Flux<DepartmentChangeInfo> changes, Duration heartbeat) {
+        return changes
+                .map(change -> SseEmitter.event().id(change.getSeq().toString()).data(change))
+                .publish(changeEvents -> Flux.merge(changeEvents, Flux.interval(heartbeat)
+                        .onBackpressureDrop()
+                        .map(tick -> SseEmitter.event().comment(""))
+                        .takeUntilOther(changeEvents.then())));
+    }
+
+    /**
+     * 200 response carrying the version as a weak ETag and the update time as Last-Modified. Varies by
+     * Accept, since the same department may be sent as JSON, Smile or CBOR; the bytes differ per format,
+     * so the version only vouches for the content, not for a strong byte-for-byte match.
+     */
+    static ResponseEntity<DepartmentInfo> withValidators(DepartmentInfo department) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (department.getVersion() != null) {
+            response.eTag("W/\"" + department.getVersion() + "\"");
+        }
+        if (department.getUpdatedAt() != null) {
+            response.lastModified(department.getUpdatedAt());
+        }
+        return response.body(department);
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client is gone or the stream already ended; completion disposes the subscriptions
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Collection ETag for the Smile and CBOR lists. Suffixed apart from the JSON list's, and weak because
+     * the two binary formats share it.
+     */
+    static String binaryListETag(String eTag) {
+        return "W/\"" + eTag + BINARY_ETAG_SUFFIX + "\"";
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, either by name or through a wildcard, with a
+     * non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parameters.length; i++) {
+                if (parameters[i].trim().matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.example.cursordemodepartmentapp.controller.impl;
+
+import com.example.cursordemodepartmentapp.config.BinaryFormatConfig;
+import com.example.cursordemodepartmentapp.controller.ReactiveDepartmentController;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.service.ReactiveDepartmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/departments")
+@RequiredArgsConstructor
+public class ReactiveDepartmentControllerImpl implements ReactiveDepartmentController {
+
+    private static final String NDJSON_ETAG_SUFFIX = "-ndjson";
+
+    private final ReactiveDepartmentService departmentService;
+
+    /**
+     * Collected before the status is sent, like the servlet stack's snapshot, so a failed read is a 500
+     * rather than a cut-off array under a 200.
+     */
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<DepartmentInfo>>> getAllDepartments(ServerWebExchange exchange) {
+        return cardsIfModified(exchange, departmentService.getAllCardsETag());
+    }
+
+    /**
+     * Streamed, so only failures up to the collection tag's query, which counts the rows, still turn into
+     * a 500; a later one can only cut the stream short. Tagged apart from the JSON array.
+     */
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DepartmentInfo>>> streamAllDepartments() {
+        // WebFlux answers a matching If-None-Match with 304 and never subscribes to the rows
+        return departmentService.getAllCardsETag()
+                .map(eTag -> ResponseEntity.ok()
+                        .eTag(eTag + NDJSON_ETAG_SUFFIX)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(departmentService.getAllCards()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @GetMapping(produces = {BinaryFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Mono<ResponseEntity<List<DepartmentInfo>>> getAllDepartmentsAsBinary(ServerWebExchange exchange) {
+        // The CBOR encoder takes whole values only, so the rows are collected
+        return cardsIfModified(exchange, departmentService.getAllCardsETag().map(DepartmentControllerImpl::binaryListETag));
+    }
+
+    @Override
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Void>> exportDepartments() {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+
+    @Override
+    @PostMapping("/import")
+    public Mono<ResponseEntity<Void>> importDepartments() {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+
+    @Override
+    @GetMapping("/page")
+    public Mono<ResponseEntity<DepartmentPage>> getDepartmentPage(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "100") int size) {
+        return departmentService.getCardsPage(cursor, size)
+                .map(ResponseEntity::ok)
+                .onErrorResume(DepartmentValidationException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<DepartmentInfo>>> searchDepartments(@RequestParam String name,
+                                                                        @RequestParam(defaultValue = "prefix") String match,
+                                                                        @RequestParam(defaultValue = "name") String sort,
+                                                                        @RequestParam(defaultValue = "100") int limit) {
+        return departmentService.searchCards(name, match, sort, limit)
+                .map(ResponseEntity::ok)
+                .onErrorResume(DepartmentValidationException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<List<DepartmentInfo>>> suggestDepartments(@RequestParam String prefix,
+                                                                         @RequestParam(defaultValue = "10") int limit) {
+        return departmentService.suggestCards(prefix, limit)
+                .map(ResponseEntity::ok)
+                .onErrorResume(DepartmentValidationException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @GetMapping({"/changes", "/stream"})
+    public Mono<ResponseEntity<Void>> getDepartmentChanges() {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+
+    @Override
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<DepartmentInfo>> getDepartment(@PathVariable Long id) {
+        return departmentService.getCard(id)
+                .map(DepartmentControllerImpl::withValidators)
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Override
+    @PostMapping
+    public Mono<ResponseEntity<Long>> createDepartment(@RequestBody DepartmentInfo departmentInfo) {
+        return departmentService.createCard(departmentInfo)
+                .map(id -> ResponseEntity.status(HttpStatus.CREATED)
+                        .header("Location", "/api/departments/" + id)
+                        .body(id))
+                .onErrorResume(e -> e instanceof DepartmentValidationException || e instanceof DataIntegrityViolationException,
+                        e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Void>> updateDepartment(@PathVariable Long id, @RequestBody DepartmentInfo departmentInfo) {
+        if (!id.equals(departmentInfo.getId())) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return departmentService.updateCard(departmentInfo)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(e -> e instanceof DepartmentValidationException || e instanceof DataIntegrityViolationException,
+                        e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(DepartmentNotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(DepartmentConflictException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteDepartment(@PathVariable Long id) {
+        return departmentService.deleteCard(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Override
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<Long>>> createDepartments(@RequestBody List<DepartmentInfo> departmentInfos) {
+        return departmentService.createCards(departmentInfos)
+                .map(ids -> ResponseEntity.status(HttpStatus.CREATED).body(ids))
+                .onErrorResume(e -> e instanceof DepartmentValidationException || e instanceof DataIntegrityViolationException,
+                        e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<Void>> updateDepartments(@RequestBody List<DepartmentInfo> departmentInfos) {
+        return departmentService.updateCards(departmentInfos)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(e -> e instanceof DepartmentValidationException || e instanceof DataIntegrityViolationException,
+                        e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(DepartmentNotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @Override
+    @DeleteMapping("/batch")
+    public Mono<ResponseEntity<Void>> deleteDepartments(@RequestBody List<Long> ids) {
+        return departmentService.deleteCards(ids)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(DepartmentValidationException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * The collected list under the given tag. The tag is checked first, so an unchanged collection is
+     * never loaded.
+     */
+    private Mono<ResponseEntity<List<DepartmentInfo>>> cardsIfModified(ServerWebExchange exchange, Mono<String> eTags) {
+        return eTags
+                .flatMap(eTag -> exchange.checkNotModified(eTag)
+                        ? Mono.<ResponseEntity<List<DepartmentInfo>>>empty()
+                        : departmentService.getAllCards()
+                                .collectList()
+                                .map(departments -> ResponseEntity.ok()
+                                        .eTag(eTag)
+                                        .varyBy(HttpHeaders.ACCEPT)
+                                        .body(departments)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+} 
\ No newline at end of file
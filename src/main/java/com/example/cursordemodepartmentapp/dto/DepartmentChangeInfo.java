@@ -0,0 +1,30 @@
+package com.example.cursordemodepartmentapp.dto;
+
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DepartmentChangeInfo {
+
+    /**
+     * Position in the change log; pass the last one seen as {@code since} to continue.
+     */
+    private Long seq;
+
+    private DepartmentChange.Type type;
+
+    private Long id;
+
+    /**
+     * Name after the change, absent on DELETED.
+     */
+    private String name;
+} 
\ No newline at end of file
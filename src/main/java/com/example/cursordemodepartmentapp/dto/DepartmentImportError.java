@@ -0,0 +1,27 @@
+package com.example.cursordemodepartmentapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DepartmentImportError {
+
+    /**
+     * Line of the file the rejected row starts on, counting from 1.
+     */
+    private long line;
+
+    /**
+     * Name given in the row, absent when the row could not be read.
+     */
+    private String name;
+
+    private String message;
+} 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.cursordemodepartmentapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class DepartmentImportReport {
+
+    /**
+     * Rows read so far, imported or not.
+     */
+    private long processed;
+
+    private long imported;
+
+    private long rejected;
+
+    /**
+     * Why rows were rejected, chunk by chunk in file order. Only the first rejections are kept, so a file of bad rows
+     * cannot fill the heap; {@link #rejected} still counts them all.
+     */
+    private List<DepartmentImportError> errors = new ArrayList<>();
+} 
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.example.cursordemodepartmentapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class DepartmentInfo {
     
     private Long id;
 
     private String name;
+
+    private Long version;
+
+    /**
+     * Sent as the Last-Modified header rather than in the body.
+     */
+    @JsonIgnore
+    private Instant updatedAt;
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.cursordemodepartmentapp.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The full department list, already serialized as a JSON array and as its gzip encoding, with the
+ * collection ETag the bytes were built for. Shared between requests, so the arrays must not be modified.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DepartmentListSnapshot {
+
+    private final String eTag;
+
+    private final byte[] json;
+
+    private final byte[] gzippedJson;
+} 
\ No newline at end of file
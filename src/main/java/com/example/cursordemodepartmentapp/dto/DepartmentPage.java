@@ -0,0 +1,20 @@
+package com.example.cursordemodepartmentapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DepartmentPage {
+
+    private List<DepartmentInfo> items;
+
+    /**
+     * Opaque token for the next page, absent on the last page.
+     */
+    private String nextCursor;
+}
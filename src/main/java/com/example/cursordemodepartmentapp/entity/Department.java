@@ -2,17 +2,26 @@ package com.example.cursordemodepartmentapp.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "department")
+@Table(name = "department", indexes = {
+        @Index(name = "department_name_uindex", columnList = "name", unique = true),
+        @Index(name = "department_name_lower_index", columnList = "name_lower")
+})
 @Getter
 @Setter
 public class Department {
-    
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_id_seq")
+    @SequenceGenerator(name = "department_id_seq", sequenceName = "department_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "id_address")
@@ -21,4 +30,24 @@ public class Department {
     @NotBlank(message = "Department name cannot be empty")
     @Column(name = "name")
     private String name;
+
+    /**
+     * Lower-cased name maintained by the database, so case-insensitive searches can use an index.
+     * Only queried, never read or written through the entity.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(name))")
+    private String nameLower;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at")
+    private Instant updatedAt;
 } 
\ No newline at end of file
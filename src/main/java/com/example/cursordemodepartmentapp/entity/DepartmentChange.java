@@ -0,0 +1,72 @@
+package com.example.cursordemodepartmentapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One write to a department, numbered by {@code seq} from {@code department_change_seq}. Rows are only
+ * appended, and removed once older than the retention period, so the log can be read incrementally from
+ * any recent sequence number. Rows are written by the change feed over JDBC, never through the
+ * persistence context.
+ */
+@Entity
+@Table(name = "department_change")
+@Getter
+@Setter
+public class DepartmentChange {
+
+    public static final String SEQ_NAME = "department_change_seq";
+    /**
+     * Sequence numbers the change feed hands out per round trip to {@value #SEQ_NAME}.
+     */
+    public static final int SEQ_ALLOCATION_SIZE = 1000;
+
+    @Id
+    @Column(name = "seq")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQ_NAME)
+    @SequenceGenerator(name = SEQ_NAME, sequenceName = SEQ_NAME, allocationSize = SEQ_ALLOCATION_SIZE)
+    private Long seq;
+
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    /**
+     * Name after the write; absent on a tombstone.
+     */
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static DepartmentChange created(Long departmentId, String name) {
+        return of(Type.CREATED, departmentId, name);
+    }
+
+    public static DepartmentChange updated(Long departmentId, String name) {
+        return of(Type.UPDATED, departmentId, name);
+    }
+
+    public static DepartmentChange deleted(Long departmentId) {
+        return of(Type.DELETED, departmentId, null);
+    }
+
+    private static DepartmentChange of(Type type, Long departmentId, String name) {
+        DepartmentChange change = new DepartmentChange();
+        change.setType(type);
+        change.setDepartmentId(departmentId);
+        change.setName(name);
+        return change;
+    }
+} 
\ No newline at end of file
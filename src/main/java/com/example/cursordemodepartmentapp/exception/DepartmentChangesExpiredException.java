@@ -0,0 +1,12 @@
+package com.example.cursordemodepartmentapp.exception;
+
+/**
+ * Thrown when a change feed reader asks for changes that were already pruned from the log, so it has to
+ * reload the departments instead. Stackless like the other domain exceptions; always mapped to 410.
+ */
+public class DepartmentChangesExpiredException extends RuntimeException {
+
+    public DepartmentChangesExpiredException(String message) {
+        super(message, null, false, false);
+    }
+}
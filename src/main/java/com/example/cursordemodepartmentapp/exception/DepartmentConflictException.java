@@ -0,0 +1,12 @@
+package com.example.cursordemodepartmentapp.exception;
+
+/**
+ * Thrown when an update names a version that is no longer current, i.e. someone else saved the
+ * department in between. Stackless like the other domain exceptions; always mapped to 409.
+ */
+public class DepartmentConflictException extends RuntimeException {
+
+    public DepartmentConflictException(String message) {
+        super(message, null, false, false);
+    }
+} 
@@ -0,0 +1,12 @@
+package com.example.cursordemodepartmentapp.exception;
+
+/**
+ * Thrown when a department id does not exist. Carries no stack trace: it is expected on every scan of
+ * missing ids and always mapped to 404, so capturing the stack would only cost CPU.
+ */
+public class DepartmentNotFoundException extends RuntimeException {
+
+    public DepartmentNotFoundException(String message) {
+        super(message, null, false, false);
+    }
+} 
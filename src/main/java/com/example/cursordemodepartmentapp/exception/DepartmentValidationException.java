@@ -0,0 +1,12 @@
+package com.example.cursordemodepartmentapp.exception;
+
+/**
+ * Thrown when a department request breaks a validation or uniqueness rule. Stackless like the other
+ * domain exceptions; always mapped to 400.
+ */
+public class DepartmentValidationException extends RuntimeException {
+
+    public DepartmentValidationException(String message) {
+        super(message, null, false, false);
+    }
+}
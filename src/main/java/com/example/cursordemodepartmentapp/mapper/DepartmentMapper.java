@@ -2,30 +2,70 @@ package com.example.cursordemodepartmentapp.mapper;
 
 import com.example.cursordemodepartmentapp.entity.Department;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
-import org.springframework.stereotype.Component;
-
-@Component
-public class DepartmentMapper {
-    
-    public DepartmentInfo toDto(Department entity) {
-        if (entity == null) {
-            return null;
-        }
-        
-        DepartmentInfo dto = new DepartmentInfo();
-        dto.setId(entity.getId());
-        dto.setName(entity.getName());
-        return dto;
-    }
-    
-    public Department toEntity(DepartmentInfo dto) {
-        if (dto == null) {
-            return null;
-        }
-        
-        Department entity = new Department();
-        entity.setId(dto.getId());
-        entity.setName(dto.getName());
-        return entity;
-    }
-} 
\ No newline at end of file
+import org.mapstruct.BeanMapping;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implemented at compile time by MapStruct as plain getter and setter calls. Every property on either
+ * side must be mapped or ignored by name, so a new column fails the build until it is handled here.
+ * <p>
+ * idAddress is not part of the card (see DepartmentInfo.json) and stays on the entity. version and
+ * updatedAt are only ever written by Hibernate, never copied from a card.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedSourcePolicy = ReportingPolicy.ERROR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface DepartmentMapper {
+
+    String NEW_ENTITY = "newEntity";
+
+    @BeanMapping(ignoreUnmappedSourceProperties = "idAddress")
+    DepartmentInfo toDto(Department entity);
+
+    /**
+     * Fills a list presized to the entities.
+     */
+    List<DepartmentInfo> toDtos(List<Department> entities);
+
+    Stream<DepartmentInfo> toDtos(Stream<Department> entities);
+
+    @BeanMapping(ignoreUnmappedSourceProperties = {"version", "updatedAt"})
+    @Mapping(target = "idAddress", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Department toEntity(DepartmentInfo dto);
+
+    /**
+     * An entity to insert, leaving the id to the sequence whatever the card says.
+     */
+    @Named(NEW_ENTITY)
+    @BeanMapping(ignoreUnmappedSourceProperties = {"id", "version", "updatedAt"})
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "idAddress", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Department toNewEntity(DepartmentInfo dto);
+
+    @IterableMapping(qualifiedByName = NEW_ENTITY)
+    List<Department> toNewEntities(List<DepartmentInfo> dtos);
+
+    /**
+     * Copies the card onto a loaded entity; a managed one is then flushed by dirty checking without
+     * a detached copy being merged. The id is the entity's identity and is left alone.
+     */
+    @BeanMapping(ignoreUnmappedSourceProperties = {"id", "version", "updatedAt"})
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "idAddress", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updateEntity(DepartmentInfo dto, @MappingTarget Department entity);
+}
@@ -0,0 +1,97 @@
+package com.example.cursordemodepartmentapp.metrics;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every {@code DepartmentService} call, tagged by method and outcome, and records the number of
+ * cards returned or accepted by list and batch methods. Runs outside the transaction so commit time and
+ * constraint violations raised on flush are attributed to the call.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DepartmentServiceMetrics {
+
+    public static final String TIMER_NAME = "department.service";
+    public static final String CARDS_NAME = "department.service.cards";
+
+    static final String OUTCOME_OK = "ok";
+    static final String OUTCOME_NOT_FOUND = "not_found";
+    static final String OUTCOME_VALIDATION_ERROR = "validation_error";
+    static final String OUTCOME_CONFLICT = "conflict";
+    static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.example.cursordemodepartmentapp.service.DepartmentService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof Optional<?> optional && optional.isEmpty() ? emptyOutcome(method) : OUTCOME_OK;
+            recordCards(method, joinPoint.getArgs(), result);
+            return result;
+        } catch (DepartmentNotFoundException e) {
+            outcome = OUTCOME_NOT_FOUND;
+            throw e;
+        } catch (DepartmentValidationException | DataIntegrityViolationException e) {
+            outcome = OUTCOME_VALIDATION_ERROR;
+            throw e;
+        } catch (DepartmentConflictException e) {
+            outcome = OUTCOME_CONFLICT;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Department service calls")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * An empty lookup is a miss; an empty create means the name was taken.
+     */
+    private static String emptyOutcome(String method) {
+        return method.startsWith("create") ? OUTCOME_VALIDATION_ERROR : OUTCOME_NOT_FOUND;
+    }
+
+    private void recordCards(String method, Object[] args, Object result) {
+        Integer cards = null;
+        if (result instanceof Collection<?> collection) {
+            cards = collection.size();
+        } else if (result instanceof DepartmentPage page && page.getItems() != null) {
+            cards = page.getItems().size();
+        } else if (args.length == 1 && args[0] instanceof Collection<?> collection) {
+            cards = collection.size();
+        }
+        if (cards != null) {
+            DistributionSummary.builder(CARDS_NAME)
+                    .description("Department cards returned or accepted per service call")
+                    .baseUnit("cards")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(cards);
+        }
+    }
+} 
@@ -0,0 +1,62 @@
+package com.example.cursordemodepartmentapp.metrics;
+
+import com.example.cursordemodepartmentapp.cache.OffHeapCardCache;
+import com.example.cursordemodepartmentapp.cache.OffHeapCardStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * The standard {@code cache.*} meters for the off-heap card cache, plus the direct memory it holds:
+ * {@code cache.off.heap.used} in blocks that hold cards and {@code cache.off.heap.allocated} in total.
+ */
+public class OffHeapCardCacheMetrics extends CacheMeterBinder<OffHeapCardCache> {
+
+    private final OffHeapCardStore store;
+
+    public OffHeapCardCacheMetrics(OffHeapCardCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        store = cache.getNativeCache();
+    }
+
+    @Override
+    protected Long size() {
+        return (long) store.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return store.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return store.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return store.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return store.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.off.heap.used", store, OffHeapCardStore::usedBytes)
+                .tags(getTagsWithCacheName())
+                .baseUnit(BaseUnits.BYTES)
+                .description("Direct memory in blocks that hold cached entries")
+                .register(registry);
+        Gauge.builder("cache.off.heap.allocated", store, OffHeapCardStore::allocatedBytes)
+                .tags(getTagsWithCacheName())
+                .baseUnit(BaseUnits.BYTES)
+                .description("Direct memory allocated by the cache, up to its budget")
+                .register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cursordemodepartmentapp.repository;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DepartmentChangeRepository extends JpaRepository<DepartmentChange, Long> {
+
+    /**
+     * Changes after {@code seq} up to and including {@code upToSeq}, in sequence order, read as a range of
+     * the primary key.
+     */
+    @Query("select new com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo(c.seq, c.type, c.departmentId, c.name) "
+            + "from DepartmentChange c where c.seq > :seq and c.seq <= :upToSeq order by c.seq")
+    List<DepartmentChangeInfo> findChangesAfter(long seq, long upToSeq, Limit limit);
+
+    @Query("select coalesce(max(c.seq), 0) from DepartmentChange c")
+    long findLastSeq();
+
+    @Query("select coalesce(min(c.seq), 0) from DepartmentChange c")
+    long findFirstSeq();
+
+    @Query("select max(c.seq) from DepartmentChange c where c.changedAt < :changedAt")
+    Long findLastSeqChangedBefore(Instant changedAt);
+
+    @Modifying
+    @Query("delete from DepartmentChange c where c.seq <= :seq")
+    int deleteUpTo(long seq);
+}
@@ -1,9 +1,96 @@
 package com.example.cursordemodepartmentapp.repository;
 
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
 import com.example.cursordemodepartmentapp.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    /**
+     * Selects cards straight from the columns, so reads neither hydrate managed entities nor keep
+     * dirty-checking snapshots of them.
+     */
+    String CARD_SELECT = "select new com.example.cursordemodepartmentapp.dto.DepartmentInfo("
+            + "d.id, d.name, d.version, d.updatedAt) from Department d ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByNameIn(Collection<String> names);
+
+    boolean existsByNameInAndIdNotIn(Collection<String> names, Collection<Long> ids);
+
+    long countByIdIn(Collection<Long> ids);
+
+    /**
+     * Which of the names are taken, answered from the name's unique index in one query.
+     */
+    @Query("select d.name from Department d where d.name in :names")
+    List<String> findNamesByNameIn(Collection<String> names);
+
+    /**
+     * Renames in one statement, bumping the version as Hibernate would. The name's unique index
+     * rejects duplicates, so no existence or uniqueness query is needed up front.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Department d set d.name = :name, d.version = d.version + 1, d.updatedAt = :updatedAt "
+            + "where d.id = :id")
+    int updateNameById(Long id, String name, Instant updatedAt);
+
+    /**
+     * Same as {@link #updateNameById}, but only while the row still has the expected version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Department d set d.name = :name, d.version = d.version + 1, d.updatedAt = :updatedAt "
+            + "where d.id = :id and d.version = :version")
+    int updateNameByIdAndVersion(Long id, long version, String name, Instant updatedAt);
+
+    @Query(CARD_SELECT + "where d.id = :id")
+    Optional<DepartmentInfo> findCardById(Long id);
+
+    @Query(CARD_SELECT + "order by d.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<DepartmentInfo> findAllCards();
+
+    @Query(CARD_SELECT + "where d.id > :id order by d.id")
+    List<DepartmentInfo> findCardsByIdGreaterThan(Long id, Limit limit);
+
+    @Query(CARD_SELECT + "order by d.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<DepartmentInfo> streamAllCards();
+
+    /**
+     * Matches the lower-cased name against a LIKE pattern that uses a backslash as escape character.
+     * Prefix patterns are answered from the name_lower index.
+     */
+    @Query(CARD_SELECT + "where d.nameLower like :pattern escape '\\'")
+    List<DepartmentInfo> findCardsByNameLowerLike(String pattern, Sort sort, Limit limit);
+
+    /**
+     * Aggregates that change whenever a department is inserted, updated or deleted.
+     */
+    @Query("select count(d) as count, max(d.id) as maxId, sum(d.version) as versionSum from Department d")
+    CollectionStamp findCollectionStamp();
+
+    interface CollectionStamp {
+        long getCount();
+        Long getMaxId();
+        Long getVersionSum();
+    }
 } 
\ No newline at end of file
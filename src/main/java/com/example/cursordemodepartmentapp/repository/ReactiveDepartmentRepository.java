@@ -0,0 +1,197 @@
+package com.example.cursordemodepartmentapp.repository;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.entity.Department;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of {@link DepartmentRepository} for the reactive profile. Queries mirror the
+ * derived JPA queries one to one.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveDepartmentRepository {
+
+    private static final String SELECT = "SELECT id, id_address, name, version, updated_at FROM department";
+
+    /**
+     * Selects cards straight from the columns, as {@link DepartmentRepository#CARD_SELECT} does, so
+     * listings build one object per row instead of an entity and then a card.
+     */
+    private static final String CARD_SELECT = "SELECT id, name, version, updated_at FROM department";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Department> findById(Long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveDepartmentRepository::toDepartment)
+                .one();
+    }
+
+    public Flux<Department> findAllById(Collection<Long> ids) {
+        return databaseClient.sql(SELECT + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveDepartmentRepository::toDepartment)
+                .all();
+    }
+
+    public Flux<DepartmentInfo> findAllCards() {
+        return databaseClient.sql(CARD_SELECT + " ORDER BY id")
+                .map(ReactiveDepartmentRepository::toCard)
+                .all();
+    }
+
+    public Flux<DepartmentInfo> findCardsByIdGreaterThan(Long id, int limit) {
+        return databaseClient.sql(CARD_SELECT + " WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveDepartmentRepository::toCard)
+                .all();
+    }
+
+    public Flux<DepartmentInfo> findCardsByNameLowerLike(String pattern, boolean orderByName, int limit) {
+        return databaseClient.sql(CARD_SELECT + " WHERE name_lower LIKE :pattern ESCAPE '\\' ORDER BY "
+                        + (orderByName ? "name_lower, id" : "id") + " LIMIT :limit")
+                .bind("pattern", pattern)
+                .bind("limit", limit)
+                .map(ReactiveDepartmentRepository::toCard)
+                .all();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return exists("id = :id", "id", id);
+    }
+
+    public Mono<Boolean> existsByName(String name) {
+        return exists("name = :name", "name", name);
+    }
+
+    public Mono<Boolean> existsByNameIn(Collection<String> names) {
+        return exists("name IN (:names)", "names", names);
+    }
+
+    public Mono<Boolean> existsByNameInAndIdNotIn(Collection<String> names, Collection<Long> ids) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM department WHERE name IN (:names) AND id NOT IN (:ids))")
+                .bind("names", names)
+                .bind("ids", ids)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    public Mono<DepartmentRepository.CollectionStamp> findCollectionStamp() {
+        return databaseClient.sql("SELECT COUNT(*), MAX(id), CAST(SUM(version) AS BIGINT) FROM department")
+                .map(row -> (DepartmentRepository.CollectionStamp) new Stamp(
+                        row.get(0, Long.class), row.get(1, Long.class), row.get(2, Long.class)))
+                .one();
+    }
+
+    public Mono<Long> countByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("SELECT COUNT(*) FROM department WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Inserts the department under a fresh id. Each {@code NEXT VALUE} reserves a whole block of the
+     * pooled-lo sequence, so these ids never collide with the ones Hibernate hands out.
+     */
+    public Mono<Long> insert(Department department) {
+        return databaseClient.sql("SELECT NEXT VALUE FOR department_id_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    DatabaseClient.GenericExecuteSpec insert = databaseClient
+                            .sql("INSERT INTO department (id, id_address, name) VALUES (:id, :idAddress, :name)")
+                            .bind("id", id)
+                            .bind("name", department.getName());
+                    insert = department.getIdAddress() == null
+                            ? insert.bindNull("idAddress", Long.class)
+                            : insert.bind("idAddress", department.getIdAddress());
+                    return insert.fetch().rowsUpdated().thenReturn(id);
+                });
+    }
+
+    public Mono<Long> updateName(Long id, String name) {
+        return databaseClient.sql("UPDATE department SET name = :name, version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = :id")
+                .bind("name", name)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateNameByIdAndVersion(Long id, long version, String name) {
+        return databaseClient.sql("UPDATE department SET name = :name, version = version + 1, updated_at = CURRENT_TIMESTAMP "
+                        + "WHERE id = :id AND version = :version")
+                .bind("name", name)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM department WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteAllByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("DELETE FROM department WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Boolean> exists(String condition, String name, Object value) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM department WHERE " + condition + ")")
+                .bind(name, value)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    private record Stamp(long count, Long maxId, Long versionSum) implements DepartmentRepository.CollectionStamp {
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public Long getMaxId() {
+            return maxId;
+        }
+
+        @Override
+        public Long getVersionSum() {
+            return versionSum;
+        }
+    }
+
+    private static Department toDepartment(Readable row) {
+        Department department = new Department();
+        department.setId(row.get("id", Long.class));
+        department.setIdAddress(row.get("id_address", Long.class));
+        department.setName(row.get("name", String.class));
+        department.setVersion(row.get("version", Long.class));
+        department.setUpdatedAt(row.get("updated_at", Instant.class));
+        return department;
+    }
+
+    private static DepartmentInfo toCard(Readable row) {
+        return new DepartmentInfo(row.get("id", Long.class), row.get("name", String.class),
+                row.get("version", Long.class), row.get("updated_at", Instant.class));
+    }
+} 
\ No newline at end of file
@@ -1,12 +1,39 @@
 package com.example.cursordemodepartmentapp.service;
 
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+
+import reactor.core.publisher.Flux;
+
+import java.io.Reader;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface DepartmentService {
     DepartmentInfo getCard(Long id);
+    Optional<DepartmentInfo> findCard(Long id);
     Long createCard(DepartmentInfo card);
+    Optional<Long> createCardIfAbsent(DepartmentInfo card);
     void updateCard(DepartmentInfo card);
     void deleteCard(Long id);
+    List<Long> createCards(List<DepartmentInfo> cards);
+    void updateCards(List<DepartmentInfo> cards);
+    void deleteCards(List<Long> ids);
+    DepartmentImportReport importCards(Reader reader, String format, Consumer<DepartmentImportReport> progress);
     List<DepartmentInfo> getAllCards();
+    DepartmentListSnapshot getAllCardsSnapshot();
+    String getAllCardsETag();
+    DepartmentPage getCardsPage(String cursor, int size);
+    List<DepartmentInfo> searchCards(String name, String match, String sort, int limit);
+    List<DepartmentInfo> suggestCards(String prefix, int limit);
+    CompletableFuture<List<DepartmentChangeInfo>> getChanges(long since, int limit, int waitSeconds);
+    Flux<DepartmentChangeInfo> streamChanges();
+    void forEachCard(Consumer<DepartmentInfo> consumer);
+    long exportCards(WritableByteChannel channel, String format, boolean gzip);
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.cursordemodepartmentapp.service;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveDepartmentService {
+    Mono<DepartmentInfo> getCard(Long id);
+    Mono<Long> createCard(DepartmentInfo card);
+    Mono<Void> updateCard(DepartmentInfo card);
+    Mono<Void> deleteCard(Long id);
+    Mono<List<Long>> createCards(List<DepartmentInfo> cards);
+    Mono<Void> updateCards(List<DepartmentInfo> cards);
+    Mono<Void> deleteCards(List<Long> ids);
+    Flux<DepartmentInfo> getAllCards();
+    Mono<String> getAllCardsETag();
+    Mono<DepartmentPage> getCardsPage(String cursor, int size);
+    Mono<List<DepartmentInfo>> searchCards(String name, String match, String sort, int limit);
+    Mono<List<DepartmentInfo>> suggestCards(String prefix, int limit);
+} 
\ No newline at end of file
@@ -0,0 +1,354 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.exception.DepartmentChangesExpiredException;
+import com.example.cursordemodepartmentapp.repository.DepartmentChangeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Log of department writes that clients follow by sequence number instead of reloading the whole list.
+ * The department service appends to it inside each write transaction.
+ * <p>
+ * Numbers come from a database sequence, so concurrent writers never wait for each other, and may
+ * commit out of order. Readers are therefore only shown changes up to the number below the lowest one
+ * still held by an open transaction: a reader that has seen a change has seen every change before it.
+ * Open transactions are only known within this process, so every write to the log has to go through it;
+ * the reactive stack, which writes through R2DBC, does not serve the feed.
+ * <p>
+ * Readers with nothing new to see can wait for the next commit, or subscribe to a live stream of commits.
+ * Both are served from queries on a single background thread, which also prunes changes older than
+ * {@code app.changes.retention} once an hour.
+ */
+@Component
+public class DepartmentChangeFeed implements SmartInitializingSingleton, DisposableBean {
+
+    static final int STREAM_BUFFER_SIZE = 256;
+    static final int PUBLISH_BATCH_SIZE = 1000;
+    static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private static final String INSERT_CHANGE = "insert into department_change (seq, department_id, type, name, changed_at) "
+            + "values (?, ?, ?, ?, ?)";
+
+    private final DepartmentChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Duration retention;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService drainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "department-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Scheduler drainScheduler = Schedulers.fromExecutorService(drainExecutor);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Numbers handed out but not yet committed or rolled back, by the first of each transaction's range
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final ReentrantLock allocationLock = new ReentrantLock();
+    // In the database's own dialect, like the rest of the schema
+    private String nextSeqBlockQuery;
+    // Rest of the current block of sequence numbers; guarded by allocationLock
+    private long nextSeq;
+    private long blockEndSeq = -1;
+    // Highest number handed out, written after its range is in flight
+    private volatile long lastSeq;
+    // Highest number pruned from the log; readers behind it have missed changes
+    private volatile long prunedSeq;
+
+    // Last change sent to stream subscribers; only touched on the feed thread
+    private long publishedSeq;
+
+    public DepartmentChangeFeed(DepartmentChangeRepository changeRepository, JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                                @Value("${app.changes.retention}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.retention = retention;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        nextSeqBlockQuery = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(DepartmentChange.SEQ_NAME);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            lastSeq = changeRepository.findLastSeq();
+            prunedSeq = Math.max(changeRepository.findFirstSeq() - 1, 0);
+        });
+        drainExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                prune();
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule; the rows are still there for the next run
+            }
+        }, PRUNE_INTERVAL.toMillis(), PRUNE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        drainExecutor.shutdownNow();
+        waiters.forEach(waiter -> waiter.future.complete(List.of()));
+        subscribers.forEach(subscriber -> subscriber.buffer.tryEmitComplete());
+    }
+
+    /**
+     * Numbers the changes and appends them in the caller's transaction as one JDBC batch. The numbers stay
+     * hidden from readers until that transaction ends, then readers are woken up.
+     */
+    public void record(List<DepartmentChange> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Department changes can only be recorded in a transaction");
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        long firstSeq = allocate(changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.remove(firstSeq);
+                committed();
+            }
+        });
+        Instant changedAt = Instant.now();
+        changes.forEach(change -> change.setChangedAt(changedAt));
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getSeq());
+            statement.setLong(2, change.getDepartmentId());
+            statement.setString(3, change.getType().name());
+            statement.setString(4, change.getName());
+            statement.setObject(5, change.getChangedAt().atOffset(ZoneOffset.UTC));
+        });
+    }
+
+    /**
+     * Highest number readers may see: every change up to it has been committed or rolled back.
+     */
+    long visibleSeq() {
+        // Read before the in-flight set, so any range up to it is already in there unless it has ended
+        long last = lastSeq;
+        Long lowestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        return lowestInFlight == null ? last : Math.min(last, lowestInFlight - 1);
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}. When there are none yet, completes with the changes
+     * of the next commit, or with an empty list once {@code timeout} passes.
+     */
+    public CompletableFuture<List<DepartmentChangeInfo>> await(long since, int limit, Duration timeout) {
+        if (since < prunedSeq) {
+            throw new DepartmentChangesExpiredException("Changes up to " + prunedSeq + " are no longer kept");
+        }
+        if (timeout.isZero()) {
+            return CompletableFuture.completedFuture(changesAfter(since, limit));
+        }
+        CompletableFuture<List<DepartmentChangeInfo>> future = new CompletableFuture<>();
+        Waiter waiter = new Waiter(since, limit, future);
+        // Registered before the first read, so a commit in between still wakes it up
+        waiters.add(waiter);
+        future.whenComplete((changes, e) -> waiters.remove(waiter));
+        List<DepartmentChangeInfo> changes = changesAfter(since, limit);
+        if (!changes.isEmpty()) {
+            future.complete(changes);
+        } else {
+            future.completeOnTimeout(List.of(), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Changes committed after subscribing, in sequence order. Subscribers never hold up the feed or each
+     * other: each gets its own buffer of {@value #STREAM_BUFFER_SIZE} changes, and one that falls further
+     * behind has its stream completed, to catch up through {@link #await} from the last change it got.
+     */
+    public Flux<DepartmentChangeInfo> live() {
+        return Flux.defer(() -> {
+                    if (subscribers.isEmpty()) {
+                        // Nobody listened since the last publish, so there is no backlog to send
+                        publishedSeq = Math.max(publishedSeq, visibleSeq());
+                    }
+                    Subscriber subscriber = new Subscriber(publishedSeq, new ArrayBlockingQueue<>(STREAM_BUFFER_SIZE));
+                    subscribers.add(subscriber);
+                    return subscriber.buffer.asFlux()
+                            .doFinally(signal -> subscribers.remove(subscriber));
+                })
+                // Subscribed on the feed thread, so no publish runs between taking the position and listening
+                .subscribeOn(drainScheduler)
+                .onErrorResume(Exceptions::isOverflow, e -> Flux.empty());
+    }
+
+    /**
+     * Wakes up waiting readers and stream subscribers after a write ends. Writes that end while a wake-up
+     * is still pending are served by it.
+     */
+    void committed() {
+        if ((!waiters.isEmpty() || !subscribers.isEmpty()) && drainScheduled.compareAndSet(false, true)) {
+            drainExecutor.execute(this::drain);
+        }
+    }
+
+    int waiting() {
+        return waiters.size();
+    }
+
+    int streaming() {
+        return subscribers.size();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        publish();
+        // Readers that follow the head share a sequence number, so they share one query
+        Map<Long, List<DepartmentChangeInfo>> changesBySince = new HashMap<>();
+        Map<Long, Integer> limitBySince = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            limitBySince.merge(waiter.since, waiter.limit, Math::max);
+        }
+        for (Waiter waiter : waiters) {
+            if (waiter.future.isDone()) {
+                continue;
+            }
+            List<DepartmentChangeInfo> changes = changesBySince.computeIfAbsent(waiter.since,
+                    since -> changesAfter(since, limitBySince.getOrDefault(since, waiter.limit)));
+            if (!changes.isEmpty()) {
+                waiter.future.complete(List.copyOf(changes.subList(0, Math.min(waiter.limit, changes.size()))));
+            }
+        }
+    }
+
+    private void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<DepartmentChangeInfo> changes;
+        do {
+            changes = changesAfter(publishedSeq, PUBLISH_BATCH_SIZE);
+            for (DepartmentChangeInfo change : changes) {
+                subscribers.forEach(subscriber -> offer(subscriber, change));
+                publishedSeq = change.getSeq();
+            }
+        } while (changes.size() == PUBLISH_BATCH_SIZE);
+    }
+
+    /**
+     * Never blocks: a subscriber whose buffer is full is dropped and its stream ends with an overflow
+     * right away, ahead of whatever it has not read yet.
+     */
+    private void offer(Subscriber subscriber, DepartmentChangeInfo change) {
+        if (change.getSeq() <= subscriber.from) {
+            return;
+        }
+        Sinks.EmitResult result = subscriber.buffer.tryEmitNext(change);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            subscribers.remove(subscriber);
+            // A unicast sink signals errors only once its queue is empty
+            subscriber.queue.clear();
+            subscriber.buffer.tryEmitError(Exceptions.failWithOverflow());
+        } else if (result.isFailure()) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Takes the next numbers of the current block, fetching blocks as needed, and marks the range in
+     * flight. The lock covers only this, so writers wait for each other at most one sequence round trip
+     * per {@value DepartmentChange#SEQ_ALLOCATION_SIZE} changes, never until a commit.
+     */
+    private long allocate(List<DepartmentChange> changes) {
+        allocationLock.lock();
+        try {
+            for (DepartmentChange change : changes) {
+                if (nextSeq > blockEndSeq) {
+                    nextSeq = jdbcTemplate.queryForObject(nextSeqBlockQuery, Long.class);
+                    blockEndSeq = nextSeq + DepartmentChange.SEQ_ALLOCATION_SIZE - 1;
+                }
+                change.setSeq(nextSeq++);
+            }
+            long firstSeq = changes.get(0).getSeq();
+            inFlight.add(firstSeq);
+            lastSeq = Math.max(lastSeq, nextSeq - 1);
+            return firstSeq;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes changes older than the retention period by primary key range. Readers still behind them
+     * are told to reload instead of being sent a log with holes.
+     */
+    void prune() {
+        Instant changedBefore = Instant.now().minus(retention);
+        Long seq = new TransactionTemplate(transactionManager).execute(status -> {
+            Long lastExpired = changeRepository.findLastSeqChangedBefore(changedBefore);
+            if (lastExpired == null) {
+                return null;
+            }
+            long upTo = Math.min(lastExpired, visibleSeq());
+            changeRepository.deleteUpTo(upTo);
+            return upTo;
+        });
+        if (seq != null && seq > prunedSeq) {
+            prunedSeq = seq;
+        }
+    }
+
+    /**
+     * Reads the primary, never a replica, so a reader woken by a commit cannot miss it.
+     */
+    private List<DepartmentChangeInfo> changesAfter(long since, int limit) {
+        long upToSeq = visibleSeq();
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> changeRepository.findChangesAfter(since, upToSeq, Limit.of(limit)));
+    }
+
+    private record Subscriber(long from, Queue<DepartmentChangeInfo> queue, Sinks.Many<DepartmentChangeInfo> buffer) {
+
+        Subscriber(long from, Queue<DepartmentChangeInfo> queue) {
+            this(from, queue, Sinks.many().unicast().onBackpressureBuffer(queue));
+        }
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<List<DepartmentChangeInfo>> future) {
+    }
+} 
\ No newline at end of file
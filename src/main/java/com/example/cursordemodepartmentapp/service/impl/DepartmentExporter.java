@@ -0,0 +1,248 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the whole department table to a channel as CSV or NDJSON, optionally gzipped. Rows are read
+ * through a forward-only cursor and encoded into buffers that are reused for every row, so the heap
+ * needed does not grow with the table.
+ * <p>
+ * Both formats carry the properties of DepartmentInfo.json: id, name and version. CSV starts with a
+ * header row and quotes fields as RFC 4180 asks.
+ */
+@Component
+public class DepartmentExporter {
+
+    static final String FORMAT_CSV = "csv";
+    static final String FORMAT_NDJSON = "ndjson";
+    static final int FETCH_SIZE = 1000;
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SELECT = "SELECT id, name, version FROM department ORDER BY id";
+    private static final String CSV_HEADER = "id,name,version\n";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final byte[] NO_INPUT = new byte[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DepartmentExporter(DataSource dataSource) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    static void validateFormat(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new DepartmentValidationException("Export format must be '" + FORMAT_CSV + "' or '" + FORMAT_NDJSON + "'");
+        }
+    }
+
+    /**
+     * Writes every department in id order and returns how many were written. Joins the caller's
+     * transaction, if any, so the cursor reads where a read-only transaction sends it.
+     */
+    public long exportCards(WritableByteChannel channel, String format, boolean gzip) {
+        validateFormat(format);
+        boolean csv = FORMAT_CSV.equals(format);
+        Sink sink = new Sink(channel, gzip);
+        StringBuilder row = new StringBuilder(256);
+        if (csv) {
+            sink.write(row.append(CSV_HEADER));
+        }
+        long[] count = {0};
+        // Plain JdbcTemplate statements are forward-only and read-only
+        jdbcTemplate.query(SELECT, (ResultSet resultSet) -> {
+            row.setLength(0);
+            long id = resultSet.getLong(1);
+            String name = resultSet.getString(2);
+            long version = resultSet.getLong(3);
+            if (csv) {
+                row.append(id).append(',');
+                appendCsv(row, name);
+                row.append(',').append(version).append('\n');
+            } else {
+                row.append("{\"id\":").append(id).append(",\"name\":");
+                appendJson(row, name);
+                row.append(",\"version\":").append(version).append("}\n");
+            }
+            sink.write(row);
+            count[0]++;
+        });
+        sink.finish();
+        return count[0];
+    }
+
+    static void appendCsv(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    static void appendJson(StringBuilder row, String value) {
+        if (value == null) {
+            row.append("null");
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        row.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        row.append(c);
+                    }
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    /**
+     * Encodes text into one direct buffer and hands it to the channel whenever it fills, compressing on
+     * the way when asked. A gzip stream is a deflate stream between a fixed header and a trailer of the
+     * CRC-32 and length of the uncompressed bytes.
+     */
+    private static final class Sink {
+
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Deflater deflater;
+        private final CRC32 crc;
+        private final ByteBuffer compressed;
+
+        Sink(WritableByteChannel channel, boolean gzip) {
+            this.channel = channel;
+            if (gzip) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                crc = new CRC32();
+                compressed = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                compressed.put(GZIP_HEADER);
+            } else {
+                deflater = null;
+                crc = null;
+                compressed = null;
+            }
+        }
+
+        void write(CharSequence text) {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, false);
+                if (result.isError()) {
+                    throw new IllegalStateException("Department names must be valid UTF-16: " + result);
+                }
+                if (!result.isOverflow()) {
+                    return;
+                }
+                drain();
+            }
+        }
+
+        void finish() {
+            try {
+                drain();
+                if (deflater == null) {
+                    return;
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                if (compressed.remaining() < 8) {
+                    flushCompressed();
+                }
+                compressed.order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt((int) crc.getValue())
+                        .putInt((int) deflater.getBytesRead());
+                flushCompressed();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+
+        private void drain() {
+            bytes.flip();
+            if (deflater == null) {
+                writeFully(bytes);
+            } else {
+                bytes.mark();
+                crc.update(bytes);
+                bytes.reset();
+                deflater.setInput(bytes);
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
+                // The deflater keeps reading a buffer it was given, even after it is cleared for reuse
+                deflater.setInput(NO_INPUT);
+            }
+            bytes.clear();
+        }
+
+        private void deflate() {
+            deflater.deflate(compressed);
+            if (!compressed.hasRemaining()) {
+                flushCompressed();
+            }
+        }
+
+        private void flushCompressed() {
+            compressed.flip();
+            writeFully(compressed);
+            compressed.clear();
+        }
+
+        private void writeFully(ByteBuffer buffer) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentImportError;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads departments from a CSV or NDJSON file and creates them a chunk at a time, each chunk in its own
+ * transaction, so memory stays bounded by the chunk rather than the file. Rows that break the rules of
+ * {@code createCard} are left out and reported with their line instead of failing the import.
+ * <p>
+ * CSV files start with a header naming a {@code name} column; other columns are ignored. NDJSON files
+ * hold one department object per line. A row longer than {@link #MAX_ROW_LENGTH} characters is rejected
+ * without being held in memory, so a stray quote cannot pull the rest of the file into one field.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentImporter {
+
+    static final String FORMAT_CSV = "csv";
+    static final String FORMAT_NDJSON = "ndjson";
+    static final int CHUNK_SIZE = DepartmentServiceImpl.MAX_BATCH_SIZE;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    /**
+     * Room for a 255-character name with every character escaped, plus the other columns.
+     */
+    static final int MAX_ROW_LENGTH = 4096;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String NAME_COLUMN = "name";
+
+    private final DepartmentRepository departmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Imports every row of the file, handing each chunk of valid rows to {@code insert} inside the
+     * chunk's transaction. {@code progress} gets the report after every chunk. Chunks committed before a
+     * failure to read the file stay imported.
+     */
+    public DepartmentImportReport importCards(Reader reader, String format,
+                                              Function<List<DepartmentInfo>, List<Long>> insert,
+                                              Consumer<DepartmentImportReport> progress) {
+        try {
+            Rows rows = rows(new LineReader(reader), format);
+            DepartmentImportReport report = new DepartmentImportReport();
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, insert, report);
+                    chunk.clear();
+                    progress.accept(report);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, insert, report);
+                progress.accept(report);
+            }
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Rows rows(LineReader reader, String format) throws IOException {
+        if (FORMAT_CSV.equals(format)) {
+            return new CsvRows(reader);
+        }
+        if (FORMAT_NDJSON.equals(format)) {
+            return new NdjsonRows(reader, objectMapper.readerFor(DepartmentInfo.class));
+        }
+        throw new DepartmentValidationException("Import format must be '" + FORMAT_CSV + "' or '" + FORMAT_NDJSON + "'");
+    }
+
+    private void importChunk(List<Row> chunk, Function<List<DepartmentInfo>, List<Long>> insert,
+                             DepartmentImportReport report) {
+        report.setProcessed(report.getProcessed() + chunk.size());
+        Map<String, Row> rowsByName = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.card());
+            if (error == null) {
+                Row first = rowsByName.putIfAbsent(row.card().getName(), row);
+                if (first != null) {
+                    error = "Department name repeats line " + first.line();
+                }
+            }
+            if (error != null) {
+                reject(report, row, error);
+            }
+        }
+        if (rowsByName.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String name : departmentRepository.findNamesByNameIn(rowsByName.keySet())) {
+                    reject(report, rowsByName.remove(name), "Department with this name already exists");
+                }
+                if (!rowsByName.isEmpty()) {
+                    insert.apply(cards(rowsByName.values()));
+                }
+            });
+            report.setImported(report.getImported() + rowsByName.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took one of the names after the check; only row by row tells which
+            for (Row row : rowsByName.values()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert.apply(List.of(row.card())));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataIntegrityViolationException rowError) {
+                    reject(report, row, "Department with this name already exists");
+                }
+            }
+        } finally {
+            // Under open-in-view every chunk shares the request's persistence context
+            entityManager.clear();
+        }
+    }
+
+    private static String validate(DepartmentInfo card) {
+        if (card == null) {
+            return "Department info cannot be null";
+        }
+        try {
+            DepartmentServiceImpl.validateName(card.getName());
+            return null;
+        } catch (DepartmentValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static void reject(DepartmentImportReport report, Row row, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            String name = row.card() == null ? null : row.card().getName();
+            report.getErrors().add(new DepartmentImportError(row.line(), name, message));
+        }
+    }
+
+    private static List<DepartmentInfo> cards(Collection<Row> rows) {
+        List<DepartmentInfo> cards = new ArrayList<>(rows.size());
+        rows.forEach(row -> cards.add(row.card()));
+        return cards;
+    }
+
+    private interface Rows {
+
+        /**
+         * The next row, or {@code null} at the end of the file. Blank lines are skipped.
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * RFC 4180 records: quoted fields may hold commas, doubled quotes and line breaks.
+     */
+    private static final class CsvRows implements Rows {
+
+        private final LineReader reader;
+        private final int nameColumn;
+        private long line;
+        private long recordLine;
+
+        CsvRows(LineReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header;
+            try {
+                header = nextRecord();
+            } catch (MalformedRowException e) {
+                throw new DepartmentValidationException("Malformed CSV header: " + e.getMessage());
+            }
+            int column = -1;
+            for (int i = 0; header != null && i < header.size(); i++) {
+                // Spreadsheets like to start UTF-8 files with a byte order mark
+                if (header.get(i).replace("\uFEFF", "").trim().equalsIgnoreCase(NAME_COLUMN)) {
+                    column = i;
+                    break;
+                }
+            }
+            if (column < 0) {
+                throw new DepartmentValidationException("CSV header must have a '" + NAME_COLUMN + "' column");
+            }
+            this.nameColumn = column;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields;
+            try {
+                fields = nextRecord();
+            } catch (MalformedRowException e) {
+                return new Row(recordLine, null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() <= nameColumn) {
+                return new Row(recordLine, null, "Row has no '" + NAME_COLUMN + "' field");
+            }
+            return new Row(recordLine, new DepartmentInfo(null, fields.get(nameColumn), null, null), null);
+        }
+
+        private List<String> nextRecord() throws IOException {
+            String text;
+            do {
+                recordLine = ++line;
+                text = reader.readLine(MAX_ROW_LENGTH);
+            } while (text != null && text.isEmpty());
+            if (text == null) {
+                return null;
+            }
+            int length = text.length();
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // The line break belongs to the field and counts towards the row
+                    line++;
+                    text = reader.readLine(MAX_ROW_LENGTH - ++length);
+                    if (text == null) {
+                        throw new MalformedRowException("Quoted field is not closed");
+                    }
+                    length += text.length();
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static final class NdjsonRows implements Rows {
+
+        private final LineReader reader;
+        private final ObjectReader cardReader;
+        private long line;
+
+        NdjsonRows(LineReader reader, ObjectReader cardReader) {
+            this.reader = reader;
+            this.cardReader = cardReader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                line++;
+                try {
+                    text = reader.readLine(MAX_ROW_LENGTH);
+                } catch (MalformedRowException e) {
+                    return new Row(line, null, e.getMessage());
+                }
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line, cardReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Splits text into lines like {@link java.io.BufferedReader#readLine()}, but never buffers more of a
+     * line than the caller allows.
+     */
+    private static final class LineReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+
+        LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * The next line without its terminator, or {@code null} at the end of the text. A line longer
+         * than {@code maxLength} is read up to its end and dropped.
+         *
+         * @throws MalformedRowException if the line was too long
+         */
+        String readLine(int maxLength) throws IOException {
+            StringBuilder text = null;
+            int length = 0;
+            boolean read = false;
+            while (position < limit || fill()) {
+                if (skipLineFeed) {
+                    // The second half of a \r\n split across two reads
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                int count = position - start;
+                boolean ended = position < limit;
+                if (ended) {
+                    skipLineFeed = buffer[position++] == '\r';
+                }
+                if (length <= maxLength) {
+                    length += count;
+                    if (length <= maxLength) {
+                        if (ended && text == null) {
+                            return new String(buffer, start, count);
+                        }
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(buffer, start, count);
+                    }
+                }
+                if (ended) {
+                    break;
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (length > maxLength) {
+                throw new MalformedRowException("Row is longer than " + MAX_ROW_LENGTH + " characters");
+            }
+            return text == null ? "" : text.toString();
+        }
+
+        private boolean fill() throws IOException {
+            int count = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+
+    private static final class MalformedRowException extends IOException {
+
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+
+    private record Row(long line, DepartmentInfo card, String error) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the serialized department list between writes. The first read after {@link #invalidate()} rebuilds
+ * it while concurrent readers wait for that result; every later read gets the same bytes without a query.
+ * <p>
+ * Only the department services invalidate it, once their writes commit, so rows written around them stay
+ * invisible until the next write through a service.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentListSnapshots {
+
+    private final DepartmentRepository departmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<DepartmentListSnapshot> current = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public DepartmentListSnapshot get() {
+        DepartmentListSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Built from what the caller's transaction sees, which may include rows that never commit
+            return build();
+        }
+        rebuildLock.lock();
+        try {
+            snapshot = current.get();
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long builtAt = generation.get();
+            snapshot = build();
+            current.set(snapshot);
+            // A write that committed during the build has bumped the generation, so withdraw the result
+            if (generation.get() != builtAt) {
+                current.compareAndSet(snapshot, null);
+            }
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    /**
+     * Reads the primary, never a replica, so a rebuild right after a commit cannot miss the write.
+     */
+    private DepartmentListSnapshot build() {
+        List<DepartmentInfo> cards = new TransactionTemplate(transactionManager)
+                .execute(status -> departmentRepository.findAllCards());
+        long maxId = 0;
+        long versionSum = 0;
+        for (DepartmentInfo card : cards) {
+            maxId = Math.max(maxId, card.getId());
+            versionSum += card.getVersion();
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(cards);
+            return new DepartmentListSnapshot(
+                    DepartmentServiceImpl.collectionETag(cards.size(), maxId, versionSum), json, gzip(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+} 
\ No newline at end of file
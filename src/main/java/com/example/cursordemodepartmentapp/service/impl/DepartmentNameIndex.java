@@ -0,0 +1,249 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of department names for type-ahead suggestions. Names are kept in a skip list ordered
+ * by lower-cased name and id, so a prefix lookup is one seek followed by a walk over at most
+ * {@code limit} entries, without touching the database.
+ * <p>
+ * Loaded from the table before the web server takes requests and kept current by the department
+ * services once their writes commit. Rows written around the services show up after {@link #rebuild()}.
+ * <p>
+ * Commit callbacks for different transactions may run in any order, so every write carries a
+ * {@link #stamp()} taken while its transaction still holds the row locks. A later write to the same
+ * department always gets a higher stamp, and a write older than the one already applied is ignored.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentNameIndex implements SmartInitializingSingleton {
+
+    /**
+     * Removed ids remembered so a late write cannot bring them back. Ids are never reused, so only the
+     * callbacks still running for earlier commits need them.
+     */
+    static final int MAX_REMOVED_IDS = 65_536;
+
+    private final DepartmentRepository departmentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicLong stamps = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Writes take the read lock, so a rebuild can swap the entries without losing one in between
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Entries entries = new Entries();
+    // Writes made while a rebuild reads the table, replayed onto its result; guarded by swapLock
+    private Queue<Write> rebuildWrites;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with the current table contents. Reads go to the primary, never a replica, so
+     * the index starts from the rows that later writes are applied on top of. Writes that commit while
+     * the table is read are replayed onto the result before it is swapped in, and the stamps already
+     * applied carry over, so a late callback cannot undo a newer write.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Queue<Write> writes = new ConcurrentLinkedQueue<>();
+            swapLock.writeLock().lock();
+            try {
+                rebuildWrites = writes;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            Entries rebuilt = new Entries();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                try (Stream<DepartmentInfo> cards = departmentRepository.streamAllCards()) {
+                    cards.forEach(card -> rebuilt.put(0, card.getId(), card.getName()));
+                }
+            });
+            rebuilt.carryStamps(entries);
+            swapLock.writeLock().lock();
+            try {
+                writes.forEach(write -> write.applyTo(rebuilt));
+                entries = rebuilt;
+                rebuildWrites = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Orders a write against other writes to the same departments. Take it after the write statements
+     * have run and before the transaction ends, while the rows are locked. Entity writes flushed only at
+     * commit are covered too: a concurrent write to the same rows makes their version check fail.
+     */
+    public long stamp() {
+        return stamps.incrementAndGet();
+    }
+
+    public void put(long stamp, Long id, String name) {
+        apply(new Write(stamp, id, name));
+    }
+
+    public void remove(long stamp, Long id) {
+        apply(new Write(stamp, id, null));
+    }
+
+    public int size() {
+        return entries.size.get();
+    }
+
+    /**
+     * Up to {@code limit} departments whose name starts with {@code prefix}, ignoring case, in name order.
+     * The cards carry only id and name.
+     */
+    public List<DepartmentInfo> suggest(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        List<DepartmentInfo> suggestions = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<Key, String> entry : entries.namesByKey.tailMap(new Key(lowerPrefix, Long.MIN_VALUE)).entrySet()) {
+            if (suggestions.size() == limit || !entry.getKey().lowerName().startsWith(lowerPrefix)) {
+                break;
+            }
+            suggestions.add(new DepartmentInfo(entry.getKey().id(), entry.getValue(), null, null));
+        }
+        return suggestions;
+    }
+
+    private void apply(Write write) {
+        swapLock.readLock().lock();
+        try {
+            write.applyTo(entries);
+            if (rebuildWrites != null) {
+                rebuildWrites.add(write);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private record Key(String lowerName, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byName = lowerName.compareTo(other.lowerName);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * A name to index, or a removal when {@code name} is null.
+     */
+    private record Write(long stamp, Long id, String name) {
+
+        void applyTo(Entries entries) {
+            if (name == null) {
+                entries.remove(stamp, id);
+            } else {
+                entries.put(stamp, id, name);
+            }
+        }
+    }
+
+    /**
+     * Latest write applied to an id: its key in the skip list, or none once the department is removed.
+     */
+    private record Slot(Key key, long stamp) {
+    }
+
+    private static final class Entries {
+
+        private final ConcurrentSkipListMap<Key, String> namesByKey = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<Long, Slot> slotsById = new ConcurrentHashMap<>();
+        private final Queue<Long> removedIds = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger removedCount = new AtomicInteger();
+        private final AtomicInteger size = new AtomicInteger();
+
+        // Changes to one id are serialized by its map entry, so a rename never leaves the old name behind
+        void put(long stamp, Long id, String name) {
+            slotsById.compute(id, (ignored, previous) -> {
+                if (previous != null && (previous.key() == null || previous.stamp() > stamp)) {
+                    return previous;
+                }
+                if (previous != null) {
+                    namesByKey.remove(previous.key());
+                } else {
+                    size.incrementAndGet();
+                }
+                Key key = new Key(name.toLowerCase(Locale.ROOT), id);
+                namesByKey.put(key, name);
+                return new Slot(key, stamp);
+            });
+        }
+
+        void remove(long stamp, Long id) {
+            boolean[] removed = new boolean[1];
+            slotsById.compute(id, (ignored, previous) -> {
+                if (previous != null && previous.key() == null) {
+                    return previous;
+                }
+                if (previous != null) {
+                    namesByKey.remove(previous.key());
+                    size.decrementAndGet();
+                }
+                removed[0] = true;
+                return new Slot(null, stamp);
+            });
+            if (removed[0]) {
+                rememberRemoved(id);
+            }
+        }
+
+        /**
+         * Takes over the stamps of the ids still present and the removals of ids that are gone, so writes
+         * older than what the previous entries had applied stay ignored. A row that is back in the table
+         * was written around the services and is kept.
+         */
+        void carryStamps(Entries previous) {
+            previous.slotsById.forEach((id, slot) -> {
+                if (slot.key() == null) {
+                    if (slotsById.putIfAbsent(id, slot) == null) {
+                        rememberRemoved(id);
+                    }
+                } else {
+                    slotsById.computeIfPresent(id, (ignored, current) ->
+                            new Slot(current.key(), Math.max(current.stamp(), slot.stamp())));
+                }
+            });
+        }
+
+        private void rememberRemoved(Long id) {
+            removedIds.add(id);
+            if (removedCount.incrementAndGet() > MAX_REMOVED_IDS) {
+                Long oldest = removedIds.poll();
+                if (oldest != null) {
+                    removedCount.decrementAndGet();
+                    slotsById.computeIfPresent(oldest, (ignored, slot) -> slot.key() == null ? null : slot);
+                }
+            }
+        }
+    }
+}
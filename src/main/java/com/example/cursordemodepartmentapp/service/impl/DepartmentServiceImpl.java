@@ -1,91 +1,511 @@
 package com.example.cursordemodepartmentapp.service.impl;
 
+import com.example.cursordemodepartmentapp.config.CacheConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
 import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
 import com.example.cursordemodepartmentapp.mapper.DepartmentMapper;
 import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
 import com.example.cursordemodepartmentapp.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
 
+import java.io.Reader;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class DepartmentServiceImpl implements DepartmentService {
-    
+
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final String MATCH_PREFIX = "prefix";
+    static final String MATCH_CONTAINS = "contains";
+    static final String SORT_BY_ID = "id";
+    static final String SORT_BY_NAME = "name";
+    static final int MAX_SUGGESTIONS = 100;
+    static final int MAX_CHANGE_WAIT_SECONDS = 30;
+
     private final DepartmentRepository departmentRepository;
     private final DepartmentMapper departmentMapper;
+    private final DepartmentNameIndex departmentNameIndex;
+    private final DepartmentListSnapshots listSnapshots;
+    private final DepartmentChangeFeed changeFeed;
+    private final DepartmentImporter importer;
+    private final DepartmentExporter exporter;
     
+    /**
+     * Not read-only, so under the {@code replica} profile the row comes from the primary: an entry
+     * filled from a lagging replica would stay stale until evicted.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_CACHE, key = "#id")
     public DepartmentInfo getCard(Long id) {
         if (id == null) {
-            throw new IllegalArgumentException("Department id cannot be null");
+            throw new DepartmentValidationException("Department id cannot be null");
+        }
+        return departmentRepository.findCardById(id)
+                .orElseThrow(() -> new DepartmentNotFoundException("Department not found with id: " + id));
+    }
+    
+    /**
+     * Lookup for callers that expect misses, such as id scans, which then cost no exception at all.
+     * Shares cache entries with {@link #getCard(Long)}, and reads the primary for the same reason.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_CACHE, key = "#id", unless = "#result == null")
+    public Optional<DepartmentInfo> findCard(Long id) {
+        if (id == null) {
+            throw new DepartmentValidationException("Department id cannot be null");
         }
-        Department department = departmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
-        return departmentMapper.toDto(department);
+        return departmentRepository.findCardById(id);
     }
     
     @Override
     public Long createCard(DepartmentInfo card) {
+        return createCardIfAbsent(card)
+                .orElseThrow(() -> new DepartmentValidationException("Department with this name already exists"));
+    }
+    
+    /**
+     * Create for callers that expect duplicate names, such as the REST endpoint, which then answers the
+     * 400 without an exception unwinding through the proxy chain.
+     */
+    @Override
+    public Optional<Long> createCardIfAbsent(DepartmentInfo card) {
         if (card == null) {
-            throw new IllegalArgumentException("Department info cannot be null");
-        }
-        if (card.getName() == null || card.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Department name cannot be null or empty");
+            throw new DepartmentValidationException("Department info cannot be null");
         }
-        if (card.getName().length() > 255) {
-            throw new IllegalArgumentException("Department name cannot be longer than 255 characters");
+        validateName(card.getName());
+        if (departmentRepository.existsByName(card.getName())) {
+            return Optional.empty();
         }
-        if (departmentRepository.findAll().stream().anyMatch(d -> d.getName().equals(card.getName()))) {
-            throw new IllegalArgumentException("Department with this name already exists");
-        }
-        Department department = departmentMapper.toEntity(card);
-        return departmentRepository.save(department).getId();
+        Department department = departmentMapper.toNewEntity(card);
+        Long id = departmentRepository.save(department).getId();
+        changeFeed.record(List.of(DepartmentChange.created(id, card.getName())));
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> departmentNameIndex.put(stamp, id, card.getName()));
+        return Optional.of(id);
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_CACHE, key = "#card.id")
     public void updateCard(DepartmentInfo card) {
         if (card == null) {
-            throw new IllegalArgumentException("Department info cannot be null");
+            throw new DepartmentValidationException("Department info cannot be null");
         }
         if (card.getId() == null) {
-            throw new IllegalArgumentException("Department id cannot be null");
-        }
-        if (card.getName() == null || card.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Department name cannot be null or empty");
-        }
-        if (card.getName().length() > 255) {
-            throw new IllegalArgumentException("Department name cannot be longer than 255 characters");
+            throw new DepartmentValidationException("Department id cannot be null");
         }
-        Department department = departmentRepository.findById(card.getId())
-                .orElseThrow(() -> new RuntimeException("Department not found with id: " + card.getId()));
-        if (departmentRepository.findAll().stream().anyMatch(d -> d.getName().equals(card.getName()) && !d.getId().equals(card.getId()))) {
-            throw new IllegalArgumentException("Department with this name already exists");
+        validateName(card.getName());
+        // A card without a version is a last-writer-wins update; with one, a stale version is a conflict
+        Long version = card.getVersion();
+        int updated = version == null
+                ? departmentRepository.updateNameById(card.getId(), card.getName(), Instant.now())
+                : departmentRepository.updateNameByIdAndVersion(card.getId(), version, card.getName(), Instant.now());
+        if (updated == 0) {
+            // Only the failure path pays for a second query to tell a stale version from a missing row
+            if (version != null && departmentRepository.existsById(card.getId())) {
+                throw new DepartmentConflictException("Department " + card.getId() + " was modified, expected version " + version);
+            }
+            throw new DepartmentNotFoundException("Department not found with id: " + card.getId());
         }
-        Department updatedDepartment = departmentMapper.toEntity(card);
-        departmentRepository.save(updatedDepartment);
+        changeFeed.record(List.of(DepartmentChange.updated(card.getId(), card.getName())));
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> departmentNameIndex.put(stamp, card.getId(), card.getName()));
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_CACHE, key = "#id")
     public void deleteCard(Long id) {
         if (id == null) {
-            throw new IllegalArgumentException("Department id cannot be null");
+            throw new DepartmentValidationException("Department id cannot be null");
         }
         if (!departmentRepository.existsById(id)) {
-            throw new RuntimeException("Department not found with id: " + id);
+            throw new DepartmentNotFoundException("Department not found with id: " + id);
         }
         departmentRepository.deleteById(id);
+        changeFeed.record(List.of(DepartmentChange.deleted(id)));
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> departmentNameIndex.remove(stamp, id));
     }
 
     @Override
-    public List<DepartmentInfo> getAllCards() {
-        return departmentRepository.findAll().stream()
-                .map(departmentMapper::toDto)
+    public List<Long> createCards(List<DepartmentInfo> cards) {
+        validateBatch(cards);
+        Set<String> names = new HashSet<>();
+        for (DepartmentInfo card : cards) {
+            if (card == null) {
+                throw new DepartmentValidationException("Department info cannot be null");
+            }
+            validateName(card.getName());
+            if (!names.add(card.getName())) {
+                throw new DepartmentValidationException("Department names in a batch must be unique");
+            }
+        }
+        if (departmentRepository.existsByNameIn(names)) {
+            throw new DepartmentValidationException("Department with this name already exists");
+        }
+        return insertCards(cards);
+    }
+
+    /**
+     * Commits a chunk at a time, so a large file neither holds one long transaction nor keeps its rows
+     * in memory. Each chunk is checked by the rules of {@link #createCards} and written the same way.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DepartmentImportReport importCards(Reader reader, String format, Consumer<DepartmentImportReport> progress) {
+        return importer.importCards(reader, format, this::insertCards, progress);
+    }
+
+    /**
+     * Inserts cards already validated as new and unique, within the caller's transaction.
+     */
+    private List<Long> insertCards(List<DepartmentInfo> cards) {
+        // Ids come from the pooled sequence so the inserts can be sent as one JDBC batch
+        List<Department> departments = departmentMapper.toNewEntities(cards);
+        List<Long> ids = departmentRepository.saveAll(departments).stream()
+                .map(Department::getId)
                 .collect(Collectors.toList());
+        List<DepartmentChange> changes = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            changes.add(DepartmentChange.created(ids.get(i), cards.get(i).getName()));
+        }
+        changeFeed.record(changes);
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> {
+            for (int i = 0; i < ids.size(); i++) {
+                departmentNameIndex.put(stamp, ids.get(i), cards.get(i).getName());
+            }
+        });
+        return ids;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_CACHE, allEntries = true)
+    public void updateCards(List<DepartmentInfo> cards) {
+        validateBatch(cards);
+        Map<Long, DepartmentInfo> cardsById = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        for (DepartmentInfo card : cards) {
+            if (card == null) {
+                throw new DepartmentValidationException("Department info cannot be null");
+            }
+            if (card.getId() == null) {
+                throw new DepartmentValidationException("Department id cannot be null");
+            }
+            validateName(card.getName());
+            if (cardsById.put(card.getId(), card) != null) {
+                throw new DepartmentValidationException("Department ids in a batch must be unique");
+            }
+            names.add(card.getName());
+        }
+        if (names.size() != cardsById.size()) {
+            throw new DepartmentValidationException("Department names in a batch must be unique");
+        }
+        List<Department> departments = departmentRepository.findAllById(cardsById.keySet());
+        if (departments.size() != cardsById.size()) {
+            throw new DepartmentNotFoundException("Department not found with id: " + missingIds(cardsById.keySet(), departments));
+        }
+        if (departmentRepository.existsByNameInAndIdNotIn(names, cardsById.keySet())) {
+            throw new DepartmentValidationException("Department with this name already exists");
+        }
+        // Managed entities are flushed by dirty checking as one batch of updates at commit
+        departments.forEach(department -> departmentMapper.updateEntity(cardsById.get(department.getId()), department));
+        changeFeed.record(cards.stream()
+                .map(card -> DepartmentChange.updated(card.getId(), card.getName()))
+                .toList());
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> cards.forEach(card -> departmentNameIndex.put(stamp, card.getId(), card.getName())));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_CACHE, allEntries = true)
+    public void deleteCards(List<Long> ids) {
+        validateBatch(ids);
+        Set<Long> uniqueIds = new HashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                throw new DepartmentValidationException("Department id cannot be null");
+            }
+            uniqueIds.add(id);
+        }
+        if (departmentRepository.countByIdIn(uniqueIds) != uniqueIds.size()) {
+            throw new DepartmentNotFoundException("Department not found with one of ids: " + uniqueIds);
+        }
+        departmentRepository.deleteAllByIdInBatch(uniqueIds);
+        changeFeed.record(uniqueIds.stream().sorted().map(DepartmentChange::deleted).toList());
+        long stamp = departmentNameIndex.stamp();
+        afterCommit(() -> uniqueIds.forEach(id -> departmentNameIndex.remove(stamp, id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartmentInfo> getAllCards() {
+        return departmentRepository.findAllCards();
+    }
+
+    /**
+     * Reuses the bytes built by an earlier call until a write commits, so repeated reads neither query
+     * nor serialize. No transaction is opened unless the snapshot has to be rebuilt.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DepartmentListSnapshot getAllCardsSnapshot() {
+        return listSnapshots.get();
+    }
+
+    /**
+     * Read from the primary like the snapshot it validates, so the tag never lags the body it is
+     * compared with.
+     */
+    @Override
+    public String getAllCardsETag() {
+        DepartmentRepository.CollectionStamp stamp = departmentRepository.findCollectionStamp();
+        return collectionETag(stamp.getCount(), stamp.getMaxId(), stamp.getVersionSum());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DepartmentPage getCardsPage(String cursor, int size) {
+        if (size < 1) {
+            throw new DepartmentValidationException("Page size must be positive");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        long afterId = cursor == null ? Long.MIN_VALUE : decodeCursor(cursor);
+        // One extra row tells whether another page follows without a count query
+        List<DepartmentInfo> cards = departmentRepository.findCardsByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        boolean hasNext = cards.size() > pageSize;
+        List<DepartmentInfo> content = hasNext ? cards.subList(0, pageSize) : cards;
+
+        DepartmentPage page = new DepartmentPage();
+        page.setItems(content);
+        if (hasNext) {
+            page.setNextCursor(encodeCursor(content.get(pageSize - 1).getId()));
+        }
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartmentInfo> searchCards(String name, String match, String sort, int limit) {
+        String pattern = namePattern(name, match);
+        // Sorting by name walks the name_lower index in order, so a prefix search stops after limit rows
+        Sort order = sortByName(sort) ? Sort.by("nameLower", "id") : Sort.by("id");
+        return departmentRepository.findCardsByNameLowerLike(pattern, order, Limit.of(searchLimit(limit)));
+    }
+
+    /**
+     * Served from the in-memory name index, so no transaction or connection is taken.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DepartmentInfo> suggestCards(String prefix, int limit) {
+        validateSuggestPrefix(prefix);
+        return departmentNameIndex.suggest(prefix, suggestLimit(limit));
+    }
+
+    /**
+     * Answered right away when changes are waiting; otherwise the caller is parked without a thread or
+     * connection until a write commits or the wait runs out.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<DepartmentChangeInfo>> getChanges(long since, int limit, int waitSeconds) {
+        if (since < 0) {
+            throw new DepartmentValidationException("Change sequence cannot be negative");
+        }
+        if (limit < 1) {
+            throw new DepartmentValidationException("Change limit must be positive");
+        }
+        if (waitSeconds < 0 || waitSeconds > MAX_CHANGE_WAIT_SECONDS) {
+            throw new DepartmentValidationException("Change wait must be between 0 and " + MAX_CHANGE_WAIT_SECONDS + " seconds");
+        }
+        return changeFeed.await(since, Math.min(limit, MAX_PAGE_SIZE), Duration.ofSeconds(waitSeconds));
+    }
+
+    /**
+     * Pushed from the change feed's own thread; subscribing takes no transaction or connection here.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Flux<DepartmentChangeInfo> streamChanges() {
+        return changeFeed.live();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachCard(Consumer<DepartmentInfo> consumer) {
+        // Cards are not managed, so the persistence context stays empty while walking the whole table
+        try (Stream<DepartmentInfo> cards = departmentRepository.streamAllCards()) {
+            cards.forEach(consumer);
+        }
+    }
+
+    /**
+     * Streams the table through a JDBC cursor straight into the channel; neither entities nor cards are
+     * built, and a read-only transaction sends the cursor to the replica where there is one.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCards(WritableByteChannel channel, String format, boolean gzip) {
+        return exporter.exportCards(channel, format, gzip);
+    }
+
+    static void validateName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new DepartmentValidationException("Department name cannot be null or empty");
+        }
+        if (name.length() > 255) {
+            throw new DepartmentValidationException("Department name cannot be longer than 255 characters");
+        }
+    }
+
+    /**
+     * LIKE pattern over the lower-cased name, with the wildcards of the search text escaped.
+     */
+    static String namePattern(String name, String match) {
+        if (name == null || name.isBlank()) {
+            throw new DepartmentValidationException("Search name cannot be null or empty");
+        }
+        if (name.length() > 255) {
+            throw new DepartmentValidationException("Search name cannot be longer than 255 characters");
+        }
+        String escaped = name.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        if (MATCH_PREFIX.equals(match)) {
+            return escaped + "%";
+        }
+        if (MATCH_CONTAINS.equals(match)) {
+            return "%" + escaped + "%";
+        }
+        throw new DepartmentValidationException("Search match must be '" + MATCH_PREFIX + "' or '" + MATCH_CONTAINS + "'");
+    }
+
+    static boolean sortByName(String sort) {
+        if (SORT_BY_NAME.equals(sort)) {
+            return true;
+        }
+        if (SORT_BY_ID.equals(sort)) {
+            return false;
+        }
+        throw new DepartmentValidationException("Search sort must be '" + SORT_BY_ID + "' or '" + SORT_BY_NAME + "'");
+    }
+
+    static int searchLimit(int limit) {
+        if (limit < 1) {
+            throw new DepartmentValidationException("Search limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    static void validateSuggestPrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new DepartmentValidationException("Suggest prefix cannot be null or empty");
+        }
+        if (prefix.length() > 255) {
+            throw new DepartmentValidationException("Suggest prefix cannot be longer than 255 characters");
+        }
+    }
+
+    static int suggestLimit(int limit) {
+        if (limit < 1) {
+            throw new DepartmentValidationException("Suggest limit must be positive");
+        }
+        return Math.min(limit, MAX_SUGGESTIONS);
+    }
+
+    static void validateBatch(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new DepartmentValidationException("Department batch cannot be null or empty");
+        }
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new DepartmentValidationException("Department batch cannot contain more than " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    /**
+     * Applies a write to the name index and drops the list snapshot once the surrounding transaction
+     * commits, or right away outside of one, so neither ever shows a write that was rolled back. The
+     * change feed wakes its own readers.
+     */
+    private void afterCommit(Runnable indexUpdate) {
+        Runnable action = () -> {
+            indexUpdate.run();
+            listSnapshots.invalidate();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<Long> missingIds(Set<Long> requestedIds, List<Department> found) {
+        Set<Long> missing = new HashSet<>(requestedIds);
+        found.forEach(department -> missing.remove(department.getId()));
+        return missing;
+    }
+
+    /**
+     * Inserts raise the row count and the highest id, updates raise the version sum and deletes lower
+     * the count, so any write yields a different tag.
+     */
+    static String collectionETag(long count, Long maxId, Long versionSum) {
+        return count + "-" + (maxId == null ? 0 : maxId) + "-" + (versionSum == null ? 0 : versionSum);
+    }
+
+    static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new DepartmentValidationException("Invalid page cursor: " + cursor);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.mapper.DepartmentMapper;
+import com.example.cursordemodepartmentapp.repository.ReactiveDepartmentRepository;
+import com.example.cursordemodepartmentapp.service.ReactiveDepartmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking twin of {@link DepartmentServiceImpl} with the same validation rules and error types.
+ * Validation failures are emitted as error signals rather than thrown at assembly time, and every
+ * write runs in one R2DBC transaction that commits before the name index sees the change.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveDepartmentServiceImpl implements ReactiveDepartmentService {
+
+    private final ReactiveDepartmentRepository departmentRepository;
+    private final DepartmentMapper departmentMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final DepartmentNameIndex departmentNameIndex;
+
+    @Override
+    public Mono<DepartmentInfo> getCard(Long id) {
+        return Mono.defer(() -> {
+            if (id == null) {
+                throw new DepartmentValidationException("Department id cannot be null");
+            }
+            return departmentRepository.findById(id)
+                    .switchIfEmpty(Mono.error(() -> new DepartmentNotFoundException("Department not found with id: " + id)))
+                    .map(departmentMapper::toDto);
+        });
+    }
+
+    @Override
+    public Mono<Long> createCard(DepartmentInfo card) {
+        return Mono.defer(() -> {
+            if (card == null) {
+                throw new DepartmentValidationException("Department info cannot be null");
+            }
+            DepartmentServiceImpl.validateName(card.getName());
+            return departmentRepository.existsByName(card.getName())
+                    .flatMap(exists -> exists
+                            ? Mono.error(new DepartmentValidationException("Department with this name already exists"))
+                            : departmentRepository.insert(departmentMapper.toNewEntity(card)));
+        }).map(id -> Tuples.of(id, departmentNameIndex.stamp()))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(written -> departmentNameIndex.put(written.getT2(), written.getT1(), card.getName()))
+                .map(Tuple2::getT1);
+    }
+
+    @Override
+    public Mono<Void> updateCard(DepartmentInfo card) {
+        return Mono.defer(() -> {
+            if (card == null) {
+                throw new DepartmentValidationException("Department info cannot be null");
+            }
+            if (card.getId() == null) {
+                throw new DepartmentValidationException("Department id cannot be null");
+            }
+            DepartmentServiceImpl.validateName(card.getName());
+            Long version = card.getVersion();
+            Mono<Long> updated = version == null
+                    ? departmentRepository.updateName(card.getId(), card.getName())
+                    : departmentRepository.updateNameByIdAndVersion(card.getId(), version, card.getName());
+            return updated.flatMap(rows -> {
+                if (rows > 0) {
+                    return Mono.<Void>empty();
+                }
+                Mono<Boolean> stale = version == null ? Mono.just(false) : departmentRepository.existsById(card.getId());
+                return stale.flatMap(exists -> Mono.<Void>error(exists
+                        ? new DepartmentConflictException("Department " + card.getId() + " was modified, expected version " + version)
+                        : new DepartmentNotFoundException("Department not found with id: " + card.getId())));
+            });
+        }).then(Mono.fromSupplier(departmentNameIndex::stamp))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(stamp -> departmentNameIndex.put(stamp, card.getId(), card.getName()))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteCard(Long id) {
+        return Mono.defer(() -> {
+            if (id == null) {
+                throw new DepartmentValidationException("Department id cannot be null");
+            }
+            return departmentRepository.deleteById(id)
+                    .flatMap(deleted -> deleted == 0
+                            ? Mono.error(new DepartmentNotFoundException("Department not found with id: " + id))
+                            : Mono.empty());
+        }).then(Mono.fromSupplier(departmentNameIndex::stamp))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(stamp -> departmentNameIndex.remove(stamp, id))
+                .then();
+    }
+
+    @Override
+    public Mono<List<Long>> createCards(List<DepartmentInfo> cards) {
+        return Mono.defer(() -> {
+            DepartmentServiceImpl.validateBatch(cards);
+            Set<String> names = new HashSet<>();
+            for (DepartmentInfo card : cards) {
+                if (card == null) {
+                    throw new DepartmentValidationException("Department info cannot be null");
+                }
+                DepartmentServiceImpl.validateName(card.getName());
+                if (!names.add(card.getName())) {
+                    throw new DepartmentValidationException("Department names in a batch must be unique");
+                }
+            }
+            return departmentRepository.existsByNameIn(names)
+                    .flatMap(exists -> exists
+                            ? Mono.error(new DepartmentValidationException("Department with this name already exists"))
+                            : Flux.fromIterable(cards)
+                                    .map(departmentMapper::toNewEntity)
+                                    .concatMap(departmentRepository::insert)
+                                    .collectList());
+        }).map(ids -> Tuples.of(ids, departmentNameIndex.stamp()))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(written -> {
+                    List<Long> ids = written.getT1();
+                    for (int i = 0; i < ids.size(); i++) {
+                        departmentNameIndex.put(written.getT2(), ids.get(i), cards.get(i).getName());
+                    }
+                })
+                .map(Tuple2::getT1);
+    }
+
+    @Override
+    public Mono<Void> updateCards(List<DepartmentInfo> cards) {
+        return Mono.defer(() -> {
+            DepartmentServiceImpl.validateBatch(cards);
+            Map<Long, String> namesById = new HashMap<>();
+            for (DepartmentInfo card : cards) {
+                if (card == null) {
+                    throw new DepartmentValidationException("Department info cannot be null");
+                }
+                if (card.getId() == null) {
+                    throw new DepartmentValidationException("Department id cannot be null");
+                }
+                DepartmentServiceImpl.validateName(card.getName());
+                if (namesById.put(card.getId(), card.getName()) != null) {
+                    throw new DepartmentValidationException("Department ids in a batch must be unique");
+                }
+            }
+            Set<String> names = new HashSet<>(namesById.values());
+            if (names.size() != namesById.size()) {
+                throw new DepartmentValidationException("Department names in a batch must be unique");
+            }
+            return departmentRepository.findAllById(namesById.keySet())
+                    .map(Department::getId)
+                    .collectList()
+                    .flatMap(found -> {
+                        if (found.size() != namesById.size()) {
+                            Set<Long> missing = new HashSet<>(namesById.keySet());
+                            found.forEach(missing::remove);
+                            return Mono.error(new DepartmentNotFoundException("Department not found with id: " + missing));
+                        }
+                        return departmentRepository.existsByNameInAndIdNotIn(names, namesById.keySet());
+                    })
+                    .flatMap(duplicate -> duplicate
+                            ? Mono.error(new DepartmentValidationException("Department with this name already exists"))
+                            : Flux.fromIterable(namesById.entrySet())
+                                    .concatMap(entry -> departmentRepository.updateName(entry.getKey(), entry.getValue()))
+                                    .then());
+        }).then(Mono.fromSupplier(departmentNameIndex::stamp))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(stamp -> cards.forEach(card -> departmentNameIndex.put(stamp, card.getId(), card.getName())))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteCards(List<Long> ids) {
+        return Mono.defer(() -> {
+            DepartmentServiceImpl.validateBatch(ids);
+            Set<Long> uniqueIds = new HashSet<>();
+            for (Long id : ids) {
+                if (id == null) {
+                    throw new DepartmentValidationException("Department id cannot be null");
+                }
+                uniqueIds.add(id);
+            }
+            return departmentRepository.countByIdIn(uniqueIds)
+                    .flatMap(count -> count != uniqueIds.size()
+                            ? Mono.error(new DepartmentNotFoundException("Department not found with one of ids: " + uniqueIds))
+                            : departmentRepository.deleteAllByIdIn(uniqueIds))
+                    .then();
+        }).then(Mono.fromSupplier(departmentNameIndex::stamp))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(stamp -> ids.forEach(id -> departmentNameIndex.remove(stamp, id)))
+                .then();
+    }
+
+    @Override
+    public Flux<DepartmentInfo> getAllCards() {
+        // Rows are pulled from the driver as the subscriber requests them, never collected into a list
+        return departmentRepository.findAllCards();
+    }
+
+    @Override
+    public Mono<String> getAllCardsETag() {
+        return departmentRepository.findCollectionStamp()
+                .map(stamp -> DepartmentServiceImpl.collectionETag(stamp.getCount(), stamp.getMaxId(), stamp.getVersionSum()));
+    }
+
+    @Override
+    public Mono<DepartmentPage> getCardsPage(String cursor, int size) {
+        return Mono.defer(() -> {
+            if (size < 1) {
+                throw new DepartmentValidationException("Page size must be positive");
+            }
+            int pageSize = Math.min(size, DepartmentServiceImpl.MAX_PAGE_SIZE);
+            long afterId = cursor == null ? Long.MIN_VALUE : DepartmentServiceImpl.decodeCursor(cursor);
+            return departmentRepository.findCardsByIdGreaterThan(afterId, pageSize + 1)
+                    .collectList()
+                    .map(cards -> {
+                        boolean hasNext = cards.size() > pageSize;
+                        List<DepartmentInfo> content = hasNext ? cards.subList(0, pageSize) : cards;
+
+                        DepartmentPage page = new DepartmentPage();
+                        page.setItems(content);
+                        if (hasNext) {
+                            page.setNextCursor(DepartmentServiceImpl.encodeCursor(content.get(pageSize - 1).getId()));
+                        }
+                        return page;
+                    });
+        });
+    }
+
+    @Override
+    public Mono<List<DepartmentInfo>> searchCards(String name, String match, String sort, int limit) {
+        return Mono.defer(() -> {
+            String pattern = DepartmentServiceImpl.namePattern(name, match);
+            boolean orderByName = DepartmentServiceImpl.sortByName(sort);
+            return departmentRepository.findCardsByNameLowerLike(pattern, orderByName, DepartmentServiceImpl.searchLimit(limit))
+                    .collectList();
+        });
+    }
+
+    @Override
+    public Mono<List<DepartmentInfo>> suggestCards(String prefix, int limit) {
+        // An in-memory lookup, cheap enough to answer on the event loop
+        return Mono.fromCallable(() -> {
+            DepartmentServiceImpl.validateSuggestPrefix(prefix);
+            return departmentNameIndex.suggest(prefix, DepartmentServiceImpl.suggestLimit(limit));
+        });
+    }
+} 
\ No newline at end of file
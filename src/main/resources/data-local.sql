@@ -2,9 +2,9 @@
 DELETE FROM department;
 
 -- Вставляем тестовые данные
-INSERT INTO department (id_address, name) VALUES
-(1, 'IT Department'),
-(2, 'HR Department'),
-(3, 'Finance Department'),
-(4, 'Marketing Department'),
-(5, 'Sales Department'); 
\ No newline at end of file
+INSERT INTO department (id, id_address, name) VALUES
+(NEXT VALUE FOR department_id_seq, 1, 'IT Department'),
+(NEXT VALUE FOR department_id_seq, 2, 'HR Department'),
+(NEXT VALUE FOR department_id_seq, 3, 'Finance Department'),
+(NEXT VALUE FOR department_id_seq, 4, 'Marketing Department'),
+(NEXT VALUE FOR department_id_seq, 5, 'Sales Department'); 
\ No newline at end of file
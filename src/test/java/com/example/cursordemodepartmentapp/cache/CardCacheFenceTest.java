@@ -0,0 +1,97 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCacheFenceTest {
+
+    private CardCacheFence fence;
+    private Map<Object, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        fence = new CardCacheFence();
+        cache = new HashMap<>();
+    }
+
+    private String lookup(Object key) {
+        return fence.lookup(key, cache::get);
+    }
+
+    private boolean fill(Object key, String value) {
+        return fence.fill(key, () -> cache.put(key, value), () -> cache.remove(key));
+    }
+
+    @Test
+    void shouldKeepFill_WhenNothingEvictedSinceMiss() {
+        assertNull(lookup(1L));
+
+        assertTrue(fill(1L, "v1"));
+
+        assertEquals("v1", lookup(1L));
+    }
+
+    @Test
+    void shouldDropFill_WhenKeyEvictedSinceMiss() {
+        assertNull(lookup(1L));
+        fence.invalidate(1L);
+
+        assertFalse(fill(1L, "v1"));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void shouldDropFill_WhenCacheClearedSinceMiss() {
+        assertNull(lookup(1L));
+        fence.invalidateAll();
+
+        assertFalse(fill(1L, "v1"));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void shouldUndoFill_WhenEvictionLandsDuringPut() {
+        assertNull(lookup(1L));
+
+        fence.fill(1L, () -> {
+            cache.put(1L, "v1");
+            fence.invalidate(1L);
+        }, () -> cache.remove(1L));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void shouldDropFill_WithoutMissOnSameKey() {
+        assertFalse(fill(1L, "v1"));
+
+        assertNull(lookup(2L));
+        assertFalse(fill(1L, "v1"));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void shouldKeepFillOfOtherKey_WhenItsStripeIsUntouched() {
+        assertNull(lookup(2L));
+        fence.invalidate(1L);
+
+        assertTrue(fill(2L, "v2"));
+    }
+
+    @Test
+    void shouldDropFill_MissedOnAnotherThread() throws InterruptedException {
+        Thread reader = new Thread(() -> lookup(1L));
+        reader.start();
+        reader.join();
+
+        assertFalse(fill(1L, "v1"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import com.example.cursordemodepartmentapp.config.CacheConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:offheapcachetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.cache.off-heap.max-size=1MB"
+})
+@ActiveProfiles({"test", CacheConfig.OFF_HEAP_PROFILE})
+class OffHeapCardCacheIntegrationTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private DepartmentRepository departmentRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE).clear();
+        DepartmentInfo card = new DepartmentInfo();
+        card.setName("Off-Heap Department");
+        id = departmentService.createCard(card);
+        clearInvocations(departmentRepository);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromDirectMemory() {
+        Cache cache = cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE);
+        assertInstanceOf(OffHeapCardCache.class, ((TransactionAwareCacheDecorator) cache).getTargetCache());
+
+        DepartmentInfo first = departmentService.getCard(id);
+        DepartmentInfo second = departmentService.getCard(id);
+
+        assertEquals("Off-Heap Department", second.getName());
+        assertEquals(first.getUpdatedAt(), second.getUpdatedAt());
+        assertNotSame(first, second);
+        verify(departmentRepository, times(1)).findCardById(id);
+    }
+
+    @Test
+    void shouldEvictEntry_WhenDepartmentUpdated() {
+        departmentService.getCard(id);
+
+        departmentService.updateCard(new DepartmentInfo(id, "Renamed Department", null, null));
+
+        assertEquals("Renamed Department", departmentService.getCard(id).getName());
+    }
+
+    @Test
+    void shouldPublishCacheMetrics() {
+        departmentService.getCard(id);
+        departmentService.getCard(id);
+
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", CacheConfig.DEPARTMENT_CACHE).tag("result", "hit")
+                .functionCounter().count() >= 1);
+        assertTrue(meterRegistry.find("cache.off.heap.used").tag("cache", CacheConfig.DEPARTMENT_CACHE)
+                .gauge().value() > 0);
+    }
+}
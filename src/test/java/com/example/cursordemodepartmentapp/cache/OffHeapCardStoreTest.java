@@ -0,0 +1,125 @@
+package com.example.cursordemodepartmentapp.cache;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCardStoreTest {
+
+    private static DepartmentInfo card(long id, String name) {
+        return new DepartmentInfo(id, name, 3L, Instant.parse("2024-03-01T10:15:30.123456789Z"));
+    }
+
+    @Test
+    void shouldReadBackEveryField() {
+        OffHeapCardStore store = new OffHeapCardStore(1 << 20);
+        store.put(1L, card(1L, "Отдел продаж"));
+        store.put(2L, new DepartmentInfo(2L, null, null, null));
+
+        DepartmentInfo first = store.get(1L);
+        assertEquals(1L, first.getId());
+        assertEquals("Отдел продаж", first.getName());
+        assertEquals(3L, first.getVersion());
+        assertEquals(Instant.parse("2024-03-01T10:15:30.123456789Z"), first.getUpdatedAt());
+        DepartmentInfo second = store.get(2L);
+        assertEquals(2L, second.getId());
+        assertNull(second.getName());
+        assertNull(second.getVersion());
+        assertNull(second.getUpdatedAt());
+        assertNull(store.get(3L));
+        assertEquals(2, store.hitCount());
+        assertEquals(1, store.missCount());
+    }
+
+    @Test
+    void shouldChainBlocks_WhenNameIsLong() {
+        OffHeapCardStore store = new OffHeapCardStore(1 << 20);
+        String name = "Департамент ".repeat(40);
+        store.put(1L, card(1L, name));
+
+        assertEquals(name, store.get(1L).getName());
+        assertTrue(store.usedBytes() > 10L * OffHeapCardStore.BLOCK_SIZE);
+    }
+
+    @Test
+    void shouldReplaceAndRemoveCards() {
+        OffHeapCardStore store = new OffHeapCardStore(1 << 20);
+        store.put(1L, card(1L, "Sales"));
+        long used = store.usedBytes();
+
+        store.put(1L, card(1L, "Renamed"));
+
+        assertEquals("Renamed", store.get(1L).getName());
+        assertEquals(1, store.size());
+        assertEquals(used, store.usedBytes());
+        assertTrue(store.remove(1L));
+        assertFalse(store.remove(1L));
+        assertNull(store.get(1L));
+        assertEquals(0, store.usedBytes());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed_WhenBudgetIsSpent() {
+        OffHeapCardStore store = new OffHeapCardStore(4 * OffHeapCardStore.BLOCK_SIZE);
+        for (long id = 1; id <= 4; id++) {
+            store.put(id, card(id, "D" + id));
+        }
+        store.get(1L);
+
+        store.put(5L, card(5L, "D5"));
+
+        assertNull(store.get(2L));
+        assertEquals("D1", store.get(1L).getName());
+        assertEquals("D5", store.get(5L).getName());
+        assertEquals(4, store.size());
+        assertEquals(1, store.evictionCount());
+        assertEquals(4L * OffHeapCardStore.BLOCK_SIZE, store.allocatedBytes());
+    }
+
+    @Test
+    void shouldStayWithinBudget_WhenManyCardsAreCached() {
+        long budget = 3L * OffHeapCardStore.CHUNK_SIZE / 2;
+        OffHeapCardStore store = new OffHeapCardStore(budget);
+        for (long id = 1; id <= 100_000; id++) {
+            store.put(id, card(id, "Department " + id));
+        }
+
+        assertEquals(budget, store.allocatedBytes());
+        assertTrue(store.usedBytes() <= budget);
+        assertEquals("Department 100000", store.get(100_000L).getName());
+        assertNull(store.get(1L));
+        for (long id = 100_000; id > 100_000 - store.size(); id--) {
+            assertEquals(id, store.get(id).getId());
+        }
+    }
+
+    @Test
+    void shouldSkipCard_WhenLargerThanBudget() {
+        OffHeapCardStore store = new OffHeapCardStore(OffHeapCardStore.BLOCK_SIZE);
+        store.put(1L, card(1L, "HR"));
+
+        assertFalse(store.put(2L, card(2L, "x".repeat(100))));
+        assertNull(store.get(2L));
+        assertEquals("HR", store.get(1L).getName());
+    }
+
+    @Test
+    void shouldReuseMemory_WhenCleared() {
+        OffHeapCardStore store = new OffHeapCardStore(1 << 20);
+        for (long id = 1; id <= 1000; id++) {
+            store.put(id, card(id, "Department " + id));
+        }
+        long allocated = store.allocatedBytes();
+
+        store.clear();
+        store.put(7L, card(7L, "Again"));
+
+        assertEquals(1, store.size());
+        assertNull(store.get(1L));
+        assertEquals("Again", store.get(7L).getName());
+        assertEquals(allocated, store.allocatedBytes());
+    }
+}
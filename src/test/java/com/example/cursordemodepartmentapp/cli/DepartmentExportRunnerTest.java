@@ -0,0 +1,65 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+class DepartmentExportRunnerTest {
+
+    @Mock
+    private DepartmentService departmentService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReplaceFileWithExport(CapturedOutput output) throws IOException {
+        Path file = directory.resolve("departments.csv");
+        Files.writeString(file, "an older and longer export");
+        when(departmentService.exportCards(any(), eq("csv"), eq(false))).thenAnswer(invocation -> {
+            invocation.<WritableByteChannel>getArgument(0)
+                    .write(ByteBuffer.wrap("id,name,version\n".getBytes(StandardCharsets.UTF_8)));
+            return 1L;
+        });
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DepartmentExportRunner.FILE_PROPERTY, file.toString());
+
+        new DepartmentExportRunner(departmentService, environment).run(new DefaultApplicationArguments());
+
+        assertEquals("id,name,version\n", Files.readString(file));
+        assertTrue(output.getOut().contains("1 rows written to " + file + " in "));
+    }
+
+    @Test
+    void shouldGzip_WhenFileNameSaysSo() throws IOException {
+        Path file = directory.resolve("departments.dump.gz");
+        when(departmentService.exportCards(any(), eq("ndjson"), eq(true))).thenReturn(0L);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DepartmentExportRunner.FILE_PROPERTY, file.toString())
+                .withProperty(DepartmentExportRunner.FORMAT_PROPERTY, "ndjson");
+
+        new DepartmentExportRunner(departmentService, environment).run(new DefaultApplicationArguments());
+
+        assertTrue(Files.exists(file));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentFilesTest {
+
+    @Test
+    void shouldTellFormatFromExtension() {
+        assertEquals("csv", DepartmentFiles.formatOf(Path.of("departments.CSV"), "app.import.format"));
+        assertEquals("ndjson", DepartmentFiles.formatOf(Path.of("departments.jsonl.gz"), "app.import.format"));
+        assertEquals("ndjson", DepartmentFiles.formatOf(Path.of("dir.csv", "departments.ndjson"), "app.import.format"));
+    }
+
+    @Test
+    void shouldNameFormatProperty_WhenExtensionIsUnknown() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> DepartmentFiles.formatOf(Path.of("departments.txt"), "app.export.format"));
+        assertTrue(e.getMessage().endsWith("set app.export.format"));
+    }
+
+    @Test
+    void shouldTellGzippedFiles() {
+        assertTrue(DepartmentFiles.isGzipped(Path.of("departments.csv.GZ")));
+        assertFalse(DepartmentFiles.isGzipped(Path.of("departments.csv")));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cursordemodepartmentapp.cli;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentImportError;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+class DepartmentImportRunnerTest {
+
+    @Mock
+    private DepartmentService departmentService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldImportGzippedFile() throws IOException {
+        Path file = directory.resolve("departments.ndjson.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write("{\"name\":\"Sales\"}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        when(departmentService.importCards(any(), eq("ndjson"), any())).thenAnswer(invocation -> {
+            assertEquals("{\"name\":\"Sales\"}", new BufferedReader(invocation.<Reader>getArgument(0)).readLine());
+            return new DepartmentImportReport();
+        });
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DepartmentImportRunner.FILE_PROPERTY, file.toString());
+
+        new DepartmentImportRunner(departmentService, environment).run(new DefaultApplicationArguments());
+    }
+
+    @Test
+    void shouldUseConfiguredFormat() throws IOException {
+        Path file = directory.resolve("departments.txt");
+        Files.writeString(file, "name\nSales\n");
+        when(departmentService.importCards(any(), eq("csv"), any())).thenReturn(new DepartmentImportReport());
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DepartmentImportRunner.FILE_PROPERTY, file.toString())
+                .withProperty(DepartmentImportRunner.FORMAT_PROPERTY, "csv");
+
+        new DepartmentImportRunner(departmentService, environment).run(new DefaultApplicationArguments());
+    }
+
+    @Test
+    void shouldLogSummaryAndRejectedRows(CapturedOutput output) throws IOException {
+        Path file = directory.resolve("departments.csv");
+        Files.writeString(file, "name\nSales\n\n");
+        DepartmentImportReport report = new DepartmentImportReport();
+        report.setProcessed(2);
+        report.setImported(1);
+        report.setRejected(1);
+        report.setErrors(List.of(new DepartmentImportError(3, null, "Department name cannot be null or empty")));
+        when(departmentService.importCards(any(), eq("csv"), any())).thenReturn(report);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DepartmentImportRunner.FILE_PROPERTY, file.toString());
+
+        new DepartmentImportRunner(departmentService, environment).run(new DefaultApplicationArguments());
+
+        assertTrue(output.getOut().contains("2 rows read, 1 imported, 1 rejected in "));
+        assertTrue(output.getOut().contains("line 3: Department name cannot be null or empty"));
+    }
+}
\ No newline at end of file
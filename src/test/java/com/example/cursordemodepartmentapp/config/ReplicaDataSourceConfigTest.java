@@ -0,0 +1,96 @@
+package com.example.cursordemodepartmentapp.config;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against two separate H2 databases with nothing replicating between them, so every read shows
+ * which pool it was served from.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primarytest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replicatest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles({"test", "replica"})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Hibernate only creates the schema on the primary
+        replica.execute("CREATE TABLE IF NOT EXISTS department (id bigint PRIMARY KEY, id_address bigint, "
+                + "name varchar(255), version bigint DEFAULT 0 NOT NULL, updated_at timestamp(6) with time zone)");
+        replica.update("DELETE FROM department");
+        primary.update("DELETE FROM department");
+        cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE).clear();
+    }
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromReplica() {
+        replica.update("INSERT INTO department (id, name) VALUES (1, 'Replica Department')");
+
+        List<DepartmentInfo> cards = departmentService.getAllCards();
+
+        assertEquals(List.of("Replica Department"), cards.stream().map(DepartmentInfo::getName).toList());
+    }
+
+    @Test
+    void shouldFillCardCacheFromPrimary() {
+        replica.update("INSERT INTO department (id, name) VALUES (1, 'Stale Department')");
+        primary.update("INSERT INTO department (id, name) VALUES (1, 'Current Department')");
+
+        assertEquals("Current Department", departmentService.getCard(1L).getName());
+        assertEquals("Current Department", departmentService.findCard(1L).orElseThrow().getName());
+        assertEquals("Current Department",
+                cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE).get(1L, DepartmentInfo.class).getName());
+    }
+
+    @Test
+    void shouldSendWritesToPrimary() {
+        DepartmentInfo card = new DepartmentInfo();
+        card.setName("Primary Department");
+
+        Long id = departmentService.createCard(card);
+
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM department WHERE id = ?", Integer.class, id));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM department", Integer.class));
+        // The row has not reached the replica, yet the cached lookup reads it back from the primary
+        assertEquals("Primary Department", departmentService.getCard(id).getName());
+        assertTrue(departmentService.getAllCards().isEmpty());
+    }
+
+    @Test
+    void shouldSizePoolsSeparately() {
+        assertEquals("replica", replicaDataSource.getPoolName());
+        assertEquals(20, replicaDataSource.getMaximumPoolSize());
+        assertEquals(10, primaryDataSource.getMaximumPoolSize());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,801 @@
+package com.example.cursordemodepartmentapp.controller;
+
+import com.example.cursordemodepartmentapp.config.BinaryFormatConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentListSnapshots;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentNameIndex;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The /api/departments contract, run against every web stack by the subclasses. Tests are flat
+ * rather than {@code @Nested} because nested classes resolve their Spring configuration from the
+ * declaring class, not from the subclass that selects the stack.
+ * <p>
+ * Not covered here: /changes, /stream, /import and /export, which only the servlet stack serves. The
+ * reactive stack answers them with 501, asserted in its own subclass.
+ */
+abstract class AbstractDepartmentControllerIntegrationTest {
+
+    // Properties of DepartmentInfo.json, which DepartmentInfo.cddl carries over to CBOR
+    private static final Set<String> SCHEMA_PROPERTIES = Set.of("id", "name", "version");
+
+    @Autowired
+    protected WebTestClient webTestClient;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected DepartmentRepository departmentRepository;
+
+    @Autowired
+    protected DepartmentNameIndex departmentNameIndex;
+
+    @Autowired
+    protected DepartmentListSnapshots departmentListSnapshots;
+
+    protected DepartmentInfo departmentInfo;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository.deleteAll();
+        departmentListSnapshots.invalidate();
+
+        departmentInfo = new DepartmentInfo();
+        departmentInfo.setName("Test Department");
+    }
+
+    protected Department saveDepartment(String name) {
+        Department department = new Department();
+        department.setName(name);
+        Department saved = departmentRepository.save(department);
+        // Saved around the service, so the list snapshot does not hear about it
+        departmentListSnapshots.invalidate();
+        return saved;
+    }
+
+    private String departmentName(Long id) {
+        Department department = departmentRepository.findById(id).orElse(null);
+        assertNotNull(department);
+        return department.getName();
+    }
+
+    // Create
+
+    @Test
+    void createDepartment_shouldCreateDepartmentAndReturnId() {
+        EntityExchangeResult<Long> result = webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().value("Location", notNullValue())
+                .expectBody(Long.class)
+                .returnResult();
+
+        Long id = result.getResponseBody();
+        assertNotNull(id);
+        assertEquals(departmentInfo.getName(), departmentName(id));
+    }
+
+    @Test
+    void createDepartment_shouldIgnoreId_WhenItNamesAnExistingDepartment() {
+        Department existing = new Department();
+        existing.setName("Original");
+        existing.setIdAddress(7L);
+        existing = departmentRepository.save(existing);
+        departmentInfo.setId(existing.getId());
+        departmentInfo.setName("Hijacked");
+
+        Long id = webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(id);
+        assertNotEquals(existing.getId(), id);
+        assertEquals("Hijacked", departmentName(id));
+        Department untouched = departmentRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Original", untouched.getName());
+        assertEquals(7L, untouched.getIdAddress());
+        assertEquals(2, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenNameIsNull() {
+        departmentInfo.setName(null);
+
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(0, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenNameIsEmpty() {
+        departmentInfo.setName("");
+
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(0, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenNameIsTooLong() {
+        departmentInfo.setName("a".repeat(256));
+
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(0, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenDepartmentInfoIsNull() {
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("null")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(0, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenContentTypeIsInvalid() {
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("invalid content")
+                .exchange()
+                .expectStatus().isEqualTo(415);
+
+        assertEquals(0, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldReturnBadRequest_WhenNameAlreadyExists() {
+        saveDepartment("Test Department");
+
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(1, departmentRepository.count());
+    }
+
+    @Test
+    void createDepartment_shouldHandleSpecialCharacters() {
+        departmentInfo.setName("Test Department!@#$%^&*()_+");
+
+        Long id = webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value("Location", notNullValue())
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Test Department!@#$%^&*()_+", departmentName(id));
+    }
+
+    // Get
+
+    @Test
+    void getDepartment_shouldReturnDepartment() {
+        Department savedDepartment = saveDepartment("Test Department");
+
+        webTestClient.get().uri("/api/departments/" + savedDepartment.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(savedDepartment.getId())
+                .jsonPath("$.name").isEqualTo("Test Department");
+    }
+
+    @Test
+    void getDepartment_shouldReturnNotFound_WhenDepartmentDoesNotExist() {
+        saveDepartment("Test Department");
+
+        webTestClient.get().uri("/api/departments/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getDepartment_shouldReturnBadRequest_WhenIdIsInvalid() {
+        saveDepartment("Test Department");
+
+        webTestClient.get().uri("/api/departments/invalid")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getDepartment_shouldReturnNotModified_UntilDepartmentChanges() {
+        Department savedDepartment = saveDepartment("Test Department");
+        String eTag = webTestClient.get().uri("/api/departments/" + savedDepartment.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectHeader().exists("Last-Modified")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        // One version, sent as JSON, Smile or CBOR, so the tag cannot be strong
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("W/"), eTag);
+
+        webTestClient.get().uri("/api/departments/" + savedDepartment.getId())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("Updated Department");
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isNoContent();
+        departmentRepository.flush();
+
+        webTestClient.get().uri("/api/departments/" + savedDepartment.getId())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Updated Department");
+    }
+
+    // Update
+
+    @Test
+    void updateDepartment_shouldUpdateDepartment() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("Updated Department");
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertEquals("Updated Department", departmentName(savedDepartment.getId()));
+    }
+
+    @Test
+    void updateDepartment_shouldReturnBadRequest_WhenIdMismatch() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(999L);
+        departmentInfo.setName("Updated Department");
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals("Test Department", departmentName(savedDepartment.getId()));
+    }
+
+    @Test
+    void updateDepartment_shouldReturnBadRequest_WhenNameIsNull() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName(null);
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals("Test Department", departmentName(savedDepartment.getId()));
+    }
+
+    @Test
+    void updateDepartment_shouldReturnBadRequest_WhenNameIsEmpty() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("");
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals("Test Department", departmentName(savedDepartment.getId()));
+    }
+
+    @Test
+    void updateDepartment_shouldReturnNotFound_WhenDepartmentDoesNotExist() {
+        saveDepartment("Test Department");
+        departmentInfo.setId(999L);
+        departmentInfo.setName("Updated Department");
+
+        webTestClient.put().uri("/api/departments/999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void updateDepartment_shouldUpdateDepartment_WhenVersionMatches() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("Updated Department");
+        departmentInfo.setVersion(savedDepartment.getVersion());
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        Department updated = departmentRepository.findById(savedDepartment.getId()).orElseThrow();
+        assertEquals("Updated Department", updated.getName());
+        assertEquals(savedDepartment.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    void updateDepartment_shouldReturnConflict_WhenVersionIsStale() {
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("First Update");
+        departmentInfo.setVersion(savedDepartment.getVersion());
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        departmentInfo.setName("Second Update");
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        assertEquals("First Update", departmentName(savedDepartment.getId()));
+    }
+
+    @Test
+    void updateDepartment_shouldReturnBadRequest_WhenNameBelongsToAnotherDepartment() {
+        saveDepartment("Other Department");
+        Department savedDepartment = saveDepartment("Test Department");
+        departmentInfo.setId(savedDepartment.getId());
+        departmentInfo.setName("Other Department");
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateDepartment_shouldReturnBadRequest_WhenContentTypeIsInvalid() {
+        Department savedDepartment = saveDepartment("Test Department");
+
+        webTestClient.put().uri("/api/departments/" + savedDepartment.getId())
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("invalid content")
+                .exchange()
+                .expectStatus().isEqualTo(415);
+
+        assertEquals("Test Department", departmentName(savedDepartment.getId()));
+    }
+
+    // Delete
+
+    @Test
+    void deleteDepartment_shouldDeleteDepartment() {
+        Department savedDepartment = saveDepartment("Test Department");
+
+        webTestClient.delete().uri("/api/departments/" + savedDepartment.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertFalse(departmentRepository.existsById(savedDepartment.getId()));
+    }
+
+    @Test
+    void deleteDepartment_shouldReturnNotFound_WhenDepartmentDoesNotExist() {
+        Department savedDepartment = saveDepartment("Test Department");
+
+        webTestClient.delete().uri("/api/departments/999")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertTrue(departmentRepository.existsById(savedDepartment.getId()));
+    }
+
+    @Test
+    void deleteDepartment_shouldReturnBadRequest_WhenIdIsInvalid() {
+        Department savedDepartment = saveDepartment("Test Department");
+
+        webTestClient.delete().uri("/api/departments/invalid")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertTrue(departmentRepository.existsById(savedDepartment.getId()));
+    }
+
+    // Batch
+
+    @Test
+    void batch_shouldCreateUpdateAndDeleteDepartmentsInBatches() {
+        Long[] ids = webTestClient.post().uri("/api/departments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"name\":\"Batch 1\"},{\"name\":\"Batch 2\"},{\"name\":\"Batch 3\"}]")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long[].class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(ids);
+        assertEquals(3, ids.length);
+        assertEquals(3, departmentRepository.count());
+
+        DepartmentInfo rename = new DepartmentInfo();
+        rename.setId(ids[0]);
+        rename.setName("Batch 1 Renamed");
+        webTestClient.put().uri("/api/departments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(rename))
+                .exchange()
+                .expectStatus().isNoContent();
+        departmentRepository.flush();
+        assertEquals("Batch 1 Renamed", departmentRepository.findById(ids[0]).orElseThrow().getName());
+
+        webTestClient.method(HttpMethod.DELETE).uri("/api/departments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(ids[1], ids[2]))
+                .exchange()
+                .expectStatus().isNoContent();
+        assertEquals(1, departmentRepository.count());
+    }
+
+    @Test
+    void batch_shouldRejectWholeBatch_WhenOneNameAlreadyExists() {
+        saveDepartment("Batch 2");
+
+        webTestClient.post().uri("/api/departments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"name\":\"Batch 1\"},{\"name\":\"Batch 2\"}]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertEquals(1, departmentRepository.count());
+    }
+
+    @Test
+    void batch_shouldReturnNotFound_WhenDeletingMissingDepartments() {
+        webTestClient.method(HttpMethod.DELETE).uri("/api/departments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[999]")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // Get all
+
+    private void saveTwoDepartments() {
+        saveDepartment("Test Department 1");
+        saveDepartment("Test Department 2");
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnAllDepartments() {
+        saveTwoDepartments();
+
+        webTestClient.get().uri("/api/departments")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$").isArray()
+                .jsonPath("$[0].name").isEqualTo("Test Department 1")
+                .jsonPath("$[1].name").isEqualTo("Test Department 2");
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnNotModified_UntilCollectionChanges() {
+        saveTwoDepartments();
+        String eTag = webTestClient.get().uri("/api/departments")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri("/api/departments")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        saveDepartment("Test Department 3");
+
+        webTestClient.get().uri("/api/departments")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3);
+    }
+
+    @Test
+    void getAllDepartments_shouldStreamNdjson() {
+        saveTwoDepartments();
+
+        List<DepartmentInfo> departments = webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(DepartmentInfo.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(departments);
+        assertEquals(List.of("Test Department 1", "Test Department 2"),
+                departments.stream().map(DepartmentInfo::getName).toList());
+    }
+
+    @Test
+    void getAllDepartments_shouldWalkAllDepartmentsPageByPage() throws Exception {
+        saveTwoDepartments();
+        saveDepartment("Test Department 3");
+
+        byte[] firstPage = webTestClient.get().uri("/api/departments/page?size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].name").isEqualTo("Test Department 1")
+                .jsonPath("$.items[1].name").isEqualTo("Test Department 2")
+                .jsonPath("$.nextCursor").value(notNullValue())
+                .returnResult()
+                .getResponseBody();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        webTestClient.get().uri("/api/departments/page?size=2&cursor=" + cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].name").isEqualTo("Test Department 3")
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnBadRequest_WhenPageSizeIsNotPositive() {
+        webTestClient.get().uri("/api/departments/page?size=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnEmptyList_WhenNoDepartmentsExist() {
+        webTestClient.get().uri("/api/departments")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$").isArray()
+                .jsonPath("$").isEmpty();
+    }
+
+    // Binary formats
+
+    @Test
+    void getAllDepartments_shouldNegotiateCbor() throws IOException {
+        saveDepartment("Department 1");
+        saveDepartment("Department 2");
+
+        byte[] body = webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        List<Map<String, Object>> departments = new CBORMapper().readValue(body, new TypeReference<>() {
+        });
+        assertEquals(List.of("Department 1", "Department 2"), departments.stream().map(d -> d.get("name")).toList());
+        departments.forEach(department -> assertTrue(SCHEMA_PROPERTIES.containsAll(department.keySet())));
+    }
+
+    @Test
+    void getDepartment_shouldNegotiateSmile() throws IOException {
+        Department savedDepartment = saveDepartment("Smile Department");
+
+        byte[] body = webTestClient.get().uri("/api/departments/" + savedDepartment.getId())
+                .accept(BinaryFormatConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(BinaryFormatConfig.APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        DepartmentInfo department = new SmileMapper().readValue(body, DepartmentInfo.class);
+        assertEquals(savedDepartment.getId(), department.getId());
+        assertEquals("Smile Department", department.getName());
+    }
+
+    @Test
+    void createDepartment_shouldAcceptCborBody() throws IOException {
+        byte[] body = new CBORMapper().writeValueAsBytes(new DepartmentInfo(null, "Cbor Department", null, null));
+
+        webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertTrue(departmentRepository.existsByName("Cbor Department"));
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnNotModifiedCbor_WhenETagMatches() {
+        saveDepartment("Department 1");
+
+        String eTag = webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_CBOR)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    // Search
+
+    @Test
+    void searchDepartments_shouldFindByCaseInsensitivePrefixInNameOrder() {
+        saveDepartment("sales South");
+        saveDepartment("Sales North");
+        saveDepartment("Pre-Sales");
+
+        webTestClient.get().uri("/api/departments/search?name=SALES")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Sales North")
+                .jsonPath("$[1].name").isEqualTo("sales South");
+    }
+
+    @Test
+    void searchDepartments_shouldFindByContainsInIdOrderUpToLimit() {
+        saveDepartment("Sales North");
+        saveDepartment("Pre-Sales");
+        saveDepartment("Marketing");
+        saveDepartment("After Sales");
+
+        webTestClient.get().uri("/api/departments/search?name=sales&match=contains&sort=id&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Sales North")
+                .jsonPath("$[1].name").isEqualTo("Pre-Sales");
+    }
+
+    @Test
+    void searchDepartments_shouldTreatWildcardsLiterally() {
+        saveDepartment("100% Sales");
+        saveDepartment("1000 Sales");
+
+        webTestClient.get().uri("/api/departments/search?name={name}", "100%")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("100% Sales");
+    }
+
+    @Test
+    void searchDepartments_shouldReturnBadRequest_WhenSearchIsInvalid() {
+        webTestClient.get().uri("/api/departments/search?name=sales&match=suffix")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/departments/search?name=sales&sort=version")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/departments/search?name={name}", " ")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    // Suggest
+
+    @Test
+    void suggestDepartments_shouldReturnTopMatchesFromNameIndex() {
+        saveDepartment("sales South");
+        Department north = saveDepartment("Sales North");
+        saveDepartment("Sales West");
+        saveDepartment("Pre-Sales");
+        // Saved around the service, so the index has to be reloaded to see the rows
+        departmentNameIndex.rebuild();
+
+        webTestClient.get().uri("/api/departments/suggest?prefix=SALES&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(north.getId().intValue())
+                .jsonPath("$[0].name").isEqualTo("Sales North")
+                .jsonPath("$[1].name").isEqualTo("sales South");
+    }
+
+    @Test
+    void suggestDepartments_shouldReturnBadRequest_WhenPrefixIsInvalid() {
+        webTestClient.get().uri("/api/departments/suggest?prefix={prefix}", " ")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/departments/suggest?prefix=sales&limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+} 
\ No newline at end of file
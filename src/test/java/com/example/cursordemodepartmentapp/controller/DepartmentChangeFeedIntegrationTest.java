@@ -0,0 +1,112 @@
+package com.example.cursordemodepartmentapp.controller;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.repository.DepartmentChangeRepository;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Change feed, recorded by the JPA service only. Not transactional, unlike the other servlet tests: the
+ * feed hides changes until the transaction that wrote them ends, and a test transaction never does.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:changefeedtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DepartmentChangeFeedIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentChangeRepository changeRepository;
+
+    private final DepartmentInfo departmentInfo = new DepartmentInfo(null, "Test Department", null, null);
+
+    @BeforeEach
+    @AfterEach
+    void deleteDepartments() {
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    void getDepartmentChanges_shouldReturnWritesAfterSequenceInOrder() {
+        long since = changeRepository.findLastSeq();
+        Long id = webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(departmentInfo)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+        webTestClient.put().uri("/api/departments/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DepartmentInfo(id, "Renamed Department", null, null))
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/departments/" + id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<DepartmentChangeInfo> changes = webTestClient.get().uri("/api/departments/changes?since={since}", since)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DepartmentChangeInfo.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(changes);
+        assertEquals(List.of(DepartmentChange.Type.CREATED, DepartmentChange.Type.UPDATED, DepartmentChange.Type.DELETED),
+                changes.stream().map(DepartmentChangeInfo::getType).toList());
+        // Numbered from a sequence, so increasing but not necessarily right after since
+        List<Long> seqs = changes.stream().map(DepartmentChangeInfo::getSeq).toList();
+        assertTrue(seqs.get(0) > since);
+        assertEquals(seqs.stream().sorted().distinct().toList(), seqs);
+        assertEquals(List.of("Test Department", "Renamed Department"),
+                changes.stream().map(DepartmentChangeInfo::getName).limit(2).toList());
+        assertNull(changes.get(2).getName());
+        changes.forEach(change -> assertEquals(id, change.getId()));
+
+        webTestClient.get().uri("/api/departments/changes?since={since}&limit=1", seqs.get(0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].type").isEqualTo("UPDATED");
+    }
+
+    @Test
+    void getDepartmentChanges_shouldReturnEmptyList_WhenNothingChangedSince() {
+        long since = changeRepository.findLastSeq();
+
+        webTestClient.get().uri("/api/departments/changes?since={since}&wait=1", since)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$").isEmpty();
+    }
+
+    @Test
+    void getDepartmentChanges_shouldReturnBadRequest_WhenWaitIsTooLong() {
+        webTestClient.get().uri("/api/departments/changes?since=0&wait=3600")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -1,7 +1,16 @@
 package com.example.cursordemodepartmentapp.controller;
 
 import com.example.cursordemodepartmentapp.controller.impl.DepartmentControllerImpl;
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportError;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.exception.DepartmentChangesExpiredException;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
 import com.example.cursordemodepartmentapp.service.DepartmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,16 +19,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.ServletWebRequest;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -27,6 +54,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @WebMvcTest(DepartmentControllerImpl.class)
 class DepartmentControllerTest {
@@ -54,25 +82,378 @@ class DepartmentControllerTest {
 
     @Nested
     class GetAllDepartmentsTests {
+        private final DepartmentListSnapshot snapshot = new DepartmentListSnapshot("2-2-0",
+                "[{\"id\":1,\"name\":\"Test Department\"}]".getBytes(StandardCharsets.UTF_8),
+                new byte[]{31, -117, 8});
+
         @Test
-        void shouldReturnAllDepartments() {
-            List<DepartmentInfo> departments = Arrays.asList(
-                new DepartmentInfo(), new DepartmentInfo()
-            );
-            when(departmentService.getAllCards()).thenReturn(departments);
+        void shouldReturnSnapshotBytes() {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(snapshot);
 
-            ResponseEntity<List<DepartmentInfo>> response = departmentController.getAllDepartments();
+            ResponseEntity<byte[]> response = departmentController.getAllDepartments(new ServletWebRequest(new MockHttpServletRequest()));
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertEquals(departments, response.getBody());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertSame(snapshot.getJson(), response.getBody());
         }
 
         @Test
         void shouldHandleServiceException() {
-            when(departmentService.getAllCards()).thenThrow(new RuntimeException("Service error"));
-            ResponseEntity<List<DepartmentInfo>> response = departmentController.getAllDepartments();
+            when(departmentService.getAllCardsSnapshot()).thenThrow(new RuntimeException("Service error"));
+            ResponseEntity<byte[]> response = departmentController.getAllDepartments(new ServletWebRequest(new MockHttpServletRequest()));
             assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
             assertNull(response.getBody());
         }
+
+        @Test
+        void shouldTagCollectionWithETag() throws Exception {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/departments"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"2-2-0\""))
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$[0].name").value("Test Department"));
+        }
+
+        @Test
+        void shouldServeGzippedSnapshot_WhenClientAcceptsGzip() throws Exception {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/departments").header("Accept-Encoding", "gzip, deflate, br"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().string("ETag", "\"2-2-0-gzip\""))
+                    .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                    .andExpect(content().bytes(snapshot.getGzippedJson()));
+        }
+
+        @Test
+        void shouldReturnNotModified_WhenETagMatches() throws Exception {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/departments").header("If-None-Match", "\"2-2-0\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            verify(departmentService, never()).getAllCards();
+        }
+
+        @Test
+        void shouldSerializeBinaryFormatsFromCards() throws Exception {
+            when(departmentService.getAllCardsETag()).thenReturn("2-2-0");
+            when(departmentService.getAllCards()).thenReturn(List.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string("ETag", "W/\"2-2-0-binary\""));
+            verify(departmentService, never()).getAllCardsSnapshot();
+        }
+
+        @Test
+        void shouldReturnNotModified_WithoutLoadingBinaryCollection_WhenETagMatches() throws Exception {
+            when(departmentService.getAllCardsETag()).thenReturn("2-2-0");
+
+            mockMvc.perform(get("/api/departments").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "W/\"2-2-0-binary\""))
+                    .andExpect(status().isNotModified());
+            verify(departmentService, never()).getAllCards();
+        }
+
+        @Test
+        void shouldNotRevalidateBinaryCollection_WithJsonETag() throws Exception {
+            when(departmentService.getAllCardsETag()).thenReturn("2-2-0");
+            when(departmentService.getAllCards()).thenReturn(List.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"2-2-0\""))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void shouldServeIdentity_WhenGzipIsRefused() throws Exception {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(snapshot);
+
+            for (String acceptEncoding : List.of("gzip;q=0", "br, deflate", "GZIP; q=0.0")) {
+                mockMvc.perform(get("/api/departments").header("Accept-Encoding", acceptEncoding))
+                        .andExpect(status().isOk())
+                        .andExpect(header().doesNotExist("Content-Encoding"))
+                        .andExpect(content().bytes(snapshot.getJson()));
+            }
+            mockMvc.perform(get("/api/departments").header("Accept-Encoding", "deflate, *;q=0.5"))
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+        }
+    }
+
+    @Nested
+    class GetDepartmentPageTests {
+        @Test
+        void shouldReturnPage() throws Exception {
+            DepartmentPage page = new DepartmentPage();
+            page.setItems(List.of(departmentInfo));
+            page.setNextCursor("MQ");
+            when(departmentService.getCardsPage(null, 1)).thenReturn(page);
+
+            mockMvc.perform(get("/api/departments/page").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(1))
+                    .andExpect(jsonPath("$.items[0].name").value("Test Department"))
+                    .andExpect(jsonPath("$.nextCursor").value("MQ"));
+        }
+
+        @Test
+        void shouldUseDefaultPageSize() throws Exception {
+            DepartmentPage page = new DepartmentPage();
+            page.setItems(Collections.emptyList());
+            when(departmentService.getCardsPage("MQ", 100)).thenReturn(page);
+
+            mockMvc.perform(get("/api/departments/page").param("cursor", "MQ"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items").isEmpty())
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+            when(departmentService.getCardsPage(eq("bad"), anyInt()))
+                    .thenThrow(new DepartmentValidationException("Invalid page cursor: bad"));
+
+            mockMvc.perform(get("/api/departments/page").param("cursor", "bad"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class SearchDepartmentsTests {
+        @Test
+        void shouldSearchWithDefaults() throws Exception {
+            when(departmentService.searchCards("test", "prefix", "name", 100)).thenReturn(List.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments/search").param("name", "test"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(1))
+                    .andExpect(jsonPath("$[0].name").value("Test Department"));
+        }
+
+        @Test
+        void shouldPassMatchSortAndLimit() throws Exception {
+            when(departmentService.searchCards("dep", "contains", "id", 5)).thenReturn(Collections.emptyList());
+
+            mockMvc.perform(get("/api/departments/search")
+                            .param("name", "dep")
+                            .param("match", "contains")
+                            .param("sort", "id")
+                            .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isEmpty());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenSearchIsInvalid() throws Exception {
+            when(departmentService.searchCards(eq("test"), eq("suffix"), any(), anyInt()))
+                    .thenThrow(new DepartmentValidationException("Search match must be 'prefix' or 'contains'"));
+
+            mockMvc.perform(get("/api/departments/search").param("name", "test").param("match", "suffix"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/departments/search"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class SuggestDepartmentsTests {
+        @Test
+        void shouldSuggestWithDefaultLimit() throws Exception {
+            when(departmentService.suggestCards("te", 10)).thenReturn(List.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments/suggest").param("prefix", "te"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(1))
+                    .andExpect(jsonPath("$[0].name").value("Test Department"));
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenSuggestIsInvalid() throws Exception {
+            when(departmentService.suggestCards("te", 0))
+                    .thenThrow(new DepartmentValidationException("Suggest limit must be positive"));
+
+            mockMvc.perform(get("/api/departments/suggest").param("prefix", "te").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/departments/suggest"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class GetDepartmentChangesTests {
+        @Test
+        void shouldReturnChangesAfterSequence() throws Exception {
+            when(departmentService.getChanges(4L, 100, 0)).thenReturn(CompletableFuture.completedFuture(List.of(
+                    new DepartmentChangeInfo(5L, DepartmentChange.Type.UPDATED, 1L, "Test Department"),
+                    new DepartmentChangeInfo(6L, DepartmentChange.Type.DELETED, 2L, null))));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "4"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].seq").value(5))
+                    .andExpect(jsonPath("$[0].type").value("UPDATED"))
+                    .andExpect(jsonPath("$[0].name").value("Test Department"))
+                    .andExpect(jsonPath("$[1].type").value("DELETED"))
+                    .andExpect(jsonPath("$[1].name").doesNotExist());
+        }
+
+        @Test
+        void shouldHoldResponse_UntilChangesArrive() throws Exception {
+            CompletableFuture<List<DepartmentChangeInfo>> changes = new CompletableFuture<>();
+            when(departmentService.getChanges(6L, 10, 20)).thenReturn(changes);
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes")
+                            .param("since", "6").param("limit", "10").param("wait", "20"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            changes.complete(List.of(new DepartmentChangeInfo(7L, DepartmentChange.Type.CREATED, 3L, "New Department")));
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].seq").value(7));
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenChangeRequestIsInvalid() throws Exception {
+            when(departmentService.getChanges(-1L, 100, 0))
+                    .thenThrow(new DepartmentValidationException("Change sequence cannot be negative"));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "-1"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/departments/changes"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReturnGone_WhenChangesWerePruned() throws Exception {
+            when(departmentService.getChanges(2L, 100, 0))
+                    .thenThrow(new DepartmentChangesExpiredException("Changes up to 40 are no longer kept"));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "2"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isGone());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenWaitRejectsSince() throws Exception {
+            CompletableFuture<List<DepartmentChangeInfo>> changes = new CompletableFuture<>();
+            when(departmentService.getChanges(99L, 100, 20)).thenReturn(changes);
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "99").param("wait", "20"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            changes.completeExceptionally(new IllegalArgumentException("Change 99 is ahead of the log"));
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReturnGone_WhenChangesArePrunedDuringWait() throws Exception {
+            when(departmentService.getChanges(2L, 100, 0)).thenReturn(CompletableFuture.supplyAsync(() -> {
+                throw new DepartmentChangesExpiredException("Changes up to 40 are no longer kept");
+            }));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "2"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isGone());
+        }
+
+        @Test
+        void shouldReturnServerError_WhenFeedFails() throws Exception {
+            when(departmentService.getChanges(0L, 100, 0))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Feed error")));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/changes").param("since", "0"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isInternalServerError());
+        }
+    }
+
+    @Nested
+    class StreamDepartmentChangesTests {
+        @Test
+        void shouldSendChangesAsServerSentEvents() throws Exception {
+            when(departmentService.streamChanges()).thenReturn(Flux.just(
+                    new DepartmentChangeInfo(5L, DepartmentChange.Type.CREATED, 1L, "Test Department"),
+                    new DepartmentChangeInfo(6L, DepartmentChange.Type.DELETED, 1L, null)));
+
+            MvcResult result = mockMvc.perform(get("/api/departments/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(content().string("id:5\ndata:{\"seq\":5,\"type\":\"CREATED\",\"id\":1,\"name\":\"Test Department\"}\n\n"
+                            + "id:6\ndata:{\"seq\":6,\"type\":\"DELETED\",\"id\":1}\n\n"));
+        }
+
+        @Test
+        void shouldEndStream_WhenFeedEndsIt() throws Exception {
+            when(departmentService.streamChanges()).thenReturn(Flux.empty());
+
+            MvcResult result = mockMvc.perform(get("/api/departments/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Nested
+    class StreamAllDepartmentsTests {
+        @Test
+        void shouldStreamDepartmentsAsNdjson() throws Exception {
+            DepartmentInfo second = new DepartmentInfo();
+            second.setId(2L);
+            second.setName("Second Department");
+            doAnswer(invocation -> {
+                Consumer<DepartmentInfo> consumer = invocation.getArgument(0);
+                consumer.accept(departmentInfo);
+                consumer.accept(second);
+                return null;
+            }).when(departmentService).forEachCard(any());
+
+            MvcResult result = mockMvc.perform(get("/api/departments").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"id\":1,\"name\":\"Test Department\"}\n"
+                            + "{\"id\":2,\"name\":\"Second Department\"}\n"));
+            verify(departmentService, never()).getAllCards();
+        }
+
+        @Test
+        void shouldKeepJsonArrayAsDefault() throws Exception {
+            when(departmentService.getAllCardsSnapshot()).thenReturn(new DepartmentListSnapshot("1-1-0",
+                    "[{\"id\":1,\"name\":\"Test Department\"}]".getBytes(StandardCharsets.UTF_8), new byte[0]));
+
+            mockMvc.perform(get("/api/departments"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$[0].id").value(1));
+            verify(departmentService, never()).forEachCard(any());
+        }
     }
 
     @Nested
@@ -80,16 +461,57 @@ class DepartmentControllerTest {
         @Test
         void shouldReturnDepartment() {
             DepartmentInfo department = new DepartmentInfo();
-            when(departmentService.getCard(1L)).thenReturn(department);
+            when(departmentService.findCard(1L)).thenReturn(Optional.of(department));
 
             ResponseEntity<DepartmentInfo> response = departmentController.getDepartment(1L);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals(department, response.getBody());
         }
 
+        @Test
+        void shouldReturnETagAndLastModified() throws Exception {
+            departmentInfo.setVersion(3L);
+            departmentInfo.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+            when(departmentService.findCard(1L)).thenReturn(Optional.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"3\""))
+                    .andExpect(header().string("Last-Modified", "Fri, 01 Mar 2024 10:15:30 GMT"))
+                    .andExpect(jsonPath("$.version").value(3))
+                    .andExpect(jsonPath("$.updatedAt").doesNotExist());
+        }
+
+        @Test
+        void shouldReturnNotModified_WhenETagMatches() throws Exception {
+            departmentInfo.setVersion(3L);
+            when(departmentService.findCard(1L)).thenReturn(Optional.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments/1").header("If-None-Match", "\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        void shouldReturnNotModified_WhenNotModifiedSince() throws Exception {
+            departmentInfo.setVersion(3L);
+            departmentInfo.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+            when(departmentService.findCard(1L)).thenReturn(Optional.of(departmentInfo));
+
+            mockMvc.perform(get("/api/departments/1").header("If-Modified-Since", "Fri, 01 Mar 2024 10:15:30 GMT"))
+                    .andExpect(status().isNotModified());
+        }
+
+        @Test
+        void shouldReturnNotFound_WhenDepartmentIsMissing() {
+            when(departmentService.findCard(1L)).thenReturn(Optional.empty());
+            ResponseEntity<DepartmentInfo> response = departmentController.getDepartment(1L);
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+
         @Test
         void shouldHandleServiceException_WhenGettingDepartment() {
-            when(departmentService.getCard(1L)).thenThrow(new RuntimeException("Service error"));
+            when(departmentService.findCard(1L)).thenThrow(new RuntimeException("Service error"));
             ResponseEntity<DepartmentInfo> response = departmentController.getDepartment(1L);
             assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         }
@@ -102,7 +524,7 @@ class DepartmentControllerTest {
             DepartmentInfo newDepartment = new DepartmentInfo();
             newDepartment.setName("New Department");
 
-            when(departmentService.createCard(any(DepartmentInfo.class))).thenReturn(1L);
+            when(departmentService.createCardIfAbsent(any(DepartmentInfo.class))).thenReturn(Optional.of(1L));
 
             mockMvc.perform(post("/api/departments")
                     .contentType(MediaType.APPLICATION_JSON)
@@ -111,7 +533,7 @@ class DepartmentControllerTest {
                     .andExpect(content().string("1"))
                     .andExpect(header().string("Location", "/api/departments/1"));
 
-            verify(departmentService).createCard(any(DepartmentInfo.class));
+            verify(departmentService).createCardIfAbsent(any(DepartmentInfo.class));
         }
 
         @Test
@@ -124,7 +546,7 @@ class DepartmentControllerTest {
                     .content(objectMapper.writeValueAsString(departmentInfo)))
                     .andExpect(status().isBadRequest());
 
-            verify(departmentService, never()).createCard(any());
+            verify(departmentService, never()).createCardIfAbsent(any());
         }
 
         @Test
@@ -154,7 +576,7 @@ class DepartmentControllerTest {
                     .content("null"))
                     .andExpect(status().isBadRequest());
 
-            verify(departmentService, never()).createCard(any());
+            verify(departmentService, never()).createCardIfAbsent(any());
         }
 
         @Test
@@ -164,12 +586,13 @@ class DepartmentControllerTest {
                     .content("invalid content"))
                     .andExpect(status().isUnsupportedMediaType());
 
-            verify(departmentService, never()).createCard(any());
+            verify(departmentService, never()).createCardIfAbsent(any());
         }
 
         @Test
         void shouldHandleSpecialCharacters() throws Exception {
             departmentInfo.setName("Test Department!@#$%^&*()_+");
+            when(departmentService.createCardIfAbsent(any(DepartmentInfo.class))).thenReturn(Optional.of(1L));
             mockMvc.perform(post("/api/departments")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(departmentInfo)))
@@ -177,12 +600,39 @@ class DepartmentControllerTest {
                     .andExpect(header().string("Location", notNullValue()));
         }
 
+        @Test
+        void shouldReturnBadRequest_WhenNameIsTaken() throws Exception {
+            DepartmentInfo newDepartment = new DepartmentInfo();
+            newDepartment.setName("New Department");
+
+            when(departmentService.createCardIfAbsent(any(DepartmentInfo.class))).thenReturn(Optional.empty());
+
+            mockMvc.perform(post("/api/departments")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(newDepartment)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenNameViolatesUniqueIndex() throws Exception {
+            DepartmentInfo newDepartment = new DepartmentInfo();
+            newDepartment.setName("New Department");
+
+            when(departmentService.createCardIfAbsent(any(DepartmentInfo.class)))
+                    .thenThrow(new DataIntegrityViolationException("department_name_uindex"));
+
+            mockMvc.perform(post("/api/departments")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(newDepartment)))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         void shouldHandleServiceException() throws Exception {
             DepartmentInfo newDepartment = new DepartmentInfo();
             newDepartment.setName("New Department");
 
-            when(departmentService.createCard(any(DepartmentInfo.class)))
+            when(departmentService.createCardIfAbsent(any(DepartmentInfo.class)))
                     .thenThrow(new RuntimeException("Service error"));
 
             mockMvc.perform(post("/api/departments")
@@ -190,7 +640,7 @@ class DepartmentControllerTest {
                     .content(objectMapper.writeValueAsString(newDepartment)))
                     .andExpect(status().isInternalServerError());
 
-            verify(departmentService).createCard(any(DepartmentInfo.class));
+            verify(departmentService).createCardIfAbsent(any(DepartmentInfo.class));
         }
     }
 
@@ -207,6 +657,31 @@ class DepartmentControllerTest {
             assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         }
 
+        @Test
+        void shouldReturnBadRequest_WhenNameViolatesUniqueIndex() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Updated Department");
+            doThrow(new DataIntegrityViolationException("department_name_uindex"))
+                    .when(departmentService).updateCard(departmentInfo);
+
+            ResponseEntity<Void> response = departmentController.updateDepartment(1L, departmentInfo);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+
+        @Test
+        void shouldReturnConflict_WhenVersionIsStale() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Updated Department");
+            departmentInfo.setVersion(3L);
+            doThrow(new DepartmentConflictException("Department 1 was modified, expected version 3"))
+                    .when(departmentService).updateCard(departmentInfo);
+
+            ResponseEntity<Void> response = departmentController.updateDepartment(1L, departmentInfo);
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        }
+
         @Test
         void shouldHandleServiceException_WhenUpdatingDepartment() {
             DepartmentInfo departmentInfo = new DepartmentInfo();
@@ -219,6 +694,170 @@ class DepartmentControllerTest {
         }
     }
 
+    @Nested
+    class BatchTests {
+        @Test
+        void shouldCreateDepartmentsAndReturnIds() throws Exception {
+            when(departmentService.createCards(anyList())).thenReturn(List.of(1L, 2L));
+
+            mockMvc.perform(post("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"name\":\"First\"},{\"name\":\"Second\"}]"))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().json("[1,2]"));
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenCreateBatchIsInvalid() throws Exception {
+            when(departmentService.createCards(anyList())).thenThrow(new DepartmentValidationException("invalid"));
+
+            mockMvc.perform(post("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"name\":\"\"}]"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldUpdateDepartments() throws Exception {
+            mockMvc.perform(put("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"id\":1,\"name\":\"First\"}]"))
+                    .andExpect(status().isNoContent());
+
+            verify(departmentService).updateCards(anyList());
+            verify(departmentService, never()).updateCard(any());
+        }
+
+        @Test
+        void shouldReturnNotFound_WhenUpdateBatchReferencesMissingDepartment() throws Exception {
+            doThrow(new RuntimeException("Department not found with id: [1]")).when(departmentService).updateCards(anyList());
+
+            mockMvc.perform(put("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"id\":1,\"name\":\"First\"}]"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void shouldDeleteDepartments() throws Exception {
+            mockMvc.perform(delete("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[1,2]"))
+                    .andExpect(status().isNoContent());
+
+            verify(departmentService).deleteCards(List.of(1L, 2L));
+            verify(departmentService, never()).deleteCard(any());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenDeleteBatchIsEmpty() throws Exception {
+            doThrow(new DepartmentValidationException("empty")).when(departmentService).deleteCards(List.of());
+
+            mockMvc.perform(delete("/api/departments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[]"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class ExportDepartmentsTests {
+        @Test
+        void shouldStreamCsvAsAttachment() throws Exception {
+            when(departmentService.exportCards(any(), eq("csv"), eq(false))).thenAnswer(invocation -> {
+                invocation.<WritableByteChannel>getArgument(0)
+                        .write(ByteBuffer.wrap("id,name,version\n1,Sales,0\n".getBytes(StandardCharsets.UTF_8)));
+                return 1L;
+            });
+
+            MvcResult result = mockMvc.perform(get("/api/departments/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(DepartmentController.TEXT_CSV_VALUE))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"departments.csv\""))
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(content().string("id,name,version\n1,Sales,0\n"));
+        }
+
+        @Test
+        void shouldAskForGzip_WhenClientAcceptsIt() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/departments/export?format=ndjson")
+                            .header("Accept-Encoding", "gzip, deflate"))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+            verify(departmentService).exportCards(any(), eq("ndjson"), eq(true));
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenFormatIsUnknown() throws Exception {
+            mockMvc.perform(get("/api/departments/export?format=xml"))
+                    .andExpect(status().isBadRequest());
+
+            verify(departmentService, never()).exportCards(any(), any(), anyBoolean());
+        }
+    }
+
+    @Nested
+    class ImportDepartmentsTests {
+        @Test
+        void shouldImportCsvAndReturnReport() throws Exception {
+            DepartmentImportReport report = new DepartmentImportReport();
+            report.setProcessed(2);
+            report.setImported(1);
+            report.setRejected(1);
+            report.getErrors().add(new DepartmentImportError(3, "Sales", "Department name repeats line 2"));
+            when(departmentService.importCards(any(), eq("csv"), any())).thenAnswer(invocation -> {
+                assertEquals("name\nSales\nSales\n", new BufferedReader(invocation.<Reader>getArgument(0)).lines()
+                        .collect(Collectors.joining("\n", "", "\n")));
+                return report;
+            });
+
+            mockMvc.perform(post("/api/departments/import")
+                    .contentType(DepartmentController.TEXT_CSV_VALUE)
+                    .content("name\nSales\nSales\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("{\"processed\":2,\"imported\":1,\"rejected\":1,"
+                            + "\"errors\":[{\"line\":3,\"name\":\"Sales\",\"message\":\"Department name repeats line 2\"}]}"));
+        }
+
+        @Test
+        void shouldImportNdjson() throws Exception {
+            when(departmentService.importCards(any(), eq("ndjson"), any())).thenReturn(new DepartmentImportReport());
+
+            mockMvc.perform(post("/api/departments/import")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content("{\"name\":\"Sales\"}\n"))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void shouldReturnBadRequest_WhenFileIsInvalid() throws Exception {
+            when(departmentService.importCards(any(), any(), any())).thenThrow(new DepartmentValidationException("no name column"));
+
+            mockMvc.perform(post("/api/departments/import")
+                    .contentType(DepartmentController.TEXT_CSV_VALUE)
+                    .content("id\n1\n"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReturnUnsupportedMediaType_ForJsonArray() throws Exception {
+            mockMvc.perform(post("/api/departments/import")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[]"))
+                    .andExpect(status().isUnsupportedMediaType());
+
+            verify(departmentService, never()).importCards(any(), any(), any());
+        }
+    }
+
     @Nested
     class DeleteDepartmentTests {
         @Test
@@ -0,0 +1,71 @@
+package com.example.cursordemodepartmentapp.controller;
+
+import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional, unlike the other servlet tests: the export reads through its own cursor on the
+ * async request thread, so it only sees rows that are committed.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exporttest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DepartmentExportIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @BeforeEach
+    @AfterEach
+    void deleteDepartments() {
+        departmentRepository.deleteAll();
+    }
+
+    private void saveDepartment(String name) {
+        Department department = new Department();
+        department.setName(name);
+        departmentRepository.save(department);
+    }
+
+    @Test
+    void exportDepartments_shouldStreamGzippedCsvFromCursor() throws IOException {
+        saveDepartment("Department 1");
+        saveDepartment("Sales, \"North\"");
+
+        byte[] body = webTestClient.get().uri("/api/departments/export?format=csv")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(DepartmentController.TEXT_CSV_VALUE)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("id,name,version", csv.lines().findFirst().orElseThrow());
+            assertTrue(csv.endsWith(",\"Sales, \"\"North\"\"\",0\n"), csv);
+            assertEquals(3, csv.lines().count());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.cursordemodepartmentapp.controller;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WebFlux stack on Netty with R2DBC. Requests run on the server's own transactions, so each test
+ * starts from an emptied table instead of rolling back.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:reactivetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles({"test", "reactive"})
+class ReactiveDepartmentControllerIntegrationTest extends AbstractDepartmentControllerIntegrationTest {
+
+    /**
+     * Only this stack commits its writes, so only here can the name index follow them without a rebuild.
+     */
+    @Test
+    void suggestDepartments_shouldFollowCommittedWrites() {
+        departmentNameIndex.rebuild();
+        Long id = webTestClient.post().uri("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DepartmentInfo(null, "Suggested Department", null, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.get().uri("/api/departments/suggest?prefix=suggested")
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(id.intValue());
+
+        webTestClient.put().uri("/api/departments/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DepartmentInfo(id, "Renamed Department", null, null))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/departments/suggest?prefix=suggested")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+        webTestClient.get().uri("/api/departments/suggest?prefix=renamed")
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(id.intValue());
+
+        webTestClient.delete().uri("/api/departments/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/departments/suggest?prefix=renamed")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    /**
+     * R2DBC writes never reach the change feed, so this stack refuses to serve it.
+     */
+    @Test
+    void getDepartmentChanges_shouldNotBeImplemented() {
+        webTestClient.get().uri("/api/departments/changes?since=0")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+        webTestClient.get().uri("/api/departments/stream")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    /**
+     * The exporter and importer run on JPA and JDBC, which this stack does not start.
+     */
+    @Test
+    void exportAndImport_shouldNotBeImplemented() {
+        webTestClient.get().uri("/api/departments/export")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+        webTestClient.post().uri("/api/departments/import")
+                .contentType(MediaType.valueOf("text/csv"))
+                .bodyValue("name\nImported Department\n")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    /**
+     * The JSON array and the NDJSON stream are different bytes, so neither may revalidate the other.
+     */
+    @Test
+    void getAllDepartments_shouldTagJsonAndNdjsonApart() {
+        saveDepartment("Test Department");
+
+        String jsonETag = webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        String ndjsonETag = webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertNotNull(jsonETag);
+        assertNotNull(ndjsonETag);
+        assertNotEquals(jsonETag, ndjsonETag);
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .ifNoneMatch(jsonETag)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch(ndjsonETag)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .ifNoneMatch(ndjsonETag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cursordemodepartmentapp.controller.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DepartmentControllerImplTest {
+
+    @Test
+    void shouldEmitHeartbeats_WhileNoChangesArrive() {
+        List<SseEmitter.SseEventBuilder> events = DepartmentControllerImpl.streamEvents(Flux.never(), Duration.ofMillis(10))
+                .take(3)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    void shouldStopHeartbeats_WhenChangesEnd() {
+        Flux<DepartmentChangeInfo> changes = Flux.just(
+                new DepartmentChangeInfo(5L, DepartmentChange.Type.UPDATED, 1L, "Test Department"));
+
+        List<SseEmitter.SseEventBuilder> events = DepartmentControllerImpl.streamEvents(changes, Duration.ofHours(1))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, events.size());
+    }
+}
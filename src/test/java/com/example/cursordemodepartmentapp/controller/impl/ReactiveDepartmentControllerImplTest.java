@@ -0,0 +1,69 @@
+package com.example.cursordemodepartmentapp.controller.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.service.ReactiveDepartmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDepartmentControllerImplTest {
+
+    @Mock
+    private ReactiveDepartmentService departmentService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new ReactiveDepartmentControllerImpl(departmentService)).build();
+    }
+
+    @Test
+    void getAllDepartments_shouldReturnServerError_WhenReadFailsMidway() {
+        when(departmentService.getAllCardsETag()).thenReturn(Mono.just("2-2-0"));
+        when(departmentService.getAllCards()).thenReturn(Flux.concat(
+                Flux.just(new DepartmentInfo(1L, "Test Department", 0L, null)),
+                Flux.error(new DataAccessResourceFailureException("connection lost"))));
+
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getAllDepartments_shouldNotLoadRows_WhenETagMatches() {
+        when(departmentService.getAllCardsETag()).thenReturn(Mono.just("2-2-0"));
+
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("\"2-2-0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(departmentService, never()).getAllCards();
+    }
+
+    @Test
+    void streamAllDepartments_shouldReturnServerError_WhenCollectionCannotBeRead() {
+        when(departmentService.getAllCardsETag()).thenReturn(Mono.error(new DataAccessResourceFailureException("connection lost")));
+
+        webTestClient.get().uri("/api/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        verify(departmentService, never()).getAllCards();
+    }
+}
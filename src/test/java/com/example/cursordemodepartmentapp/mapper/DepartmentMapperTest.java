@@ -7,10 +7,12 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,7 +24,7 @@ class DepartmentMapperTest {
 
     @BeforeEach
     void setUp() {
-        mapper = new DepartmentMapper();
+        mapper = Mappers.getMapper(DepartmentMapper.class);
         department = new Department();
         department.setId(1L);
         department.setName("Test Department");
@@ -36,7 +38,7 @@ class DepartmentMapperTest {
     class ConstructorTests {
         @Test
         void shouldCreateInstance() {
-            DepartmentMapper mapper = new DepartmentMapper();
+            DepartmentMapper mapper = Mappers.getMapper(DepartmentMapper.class);
             assertNotNull(mapper);
         }
     }
@@ -57,6 +59,17 @@ class DepartmentMapperTest {
             assertNull(mapper.toDto(null));
         }
 
+        @Test
+        void shouldMapVersionAndUpdateTime() {
+            department.setVersion(3L);
+            department.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+
+            DepartmentInfo result = mapper.toDto(department);
+
+            assertEquals(3L, result.getVersion());
+            assertEquals(Instant.parse("2024-03-01T10:15:30Z"), result.getUpdatedAt());
+        }
+
         @Test
         void shouldHandleNullFields() {
             department.setId(null);
@@ -363,6 +376,77 @@ class DepartmentMapperTest {
             assertEquals("Department 1", result.get(0).getName());
             assertEquals("Department 2", result.get(1).getName());
         }
+
+        @Test
+        void shouldMapListInOrder() {
+            List<DepartmentInfo> result = mapper.toDtos(Arrays.asList(
+                createDepartment(2L, "Department 2"),
+                null,
+                createDepartment(1L, "Department 1")
+            ));
+
+            assertEquals(3, result.size());
+            assertEquals(2L, result.get(0).getId());
+            assertNull(result.get(1));
+            assertEquals("Department 1", result.get(2).getName());
+            assertNull(mapper.toDtos((List<Department>) null));
+        }
+
+        @Test
+        void shouldMapStreamLazily() {
+            Stream<DepartmentInfo> result = mapper.toDtos(Stream.of(createDepartment(1L, "Department 1")));
+
+            assertEquals(List.of("Department 1"), result.map(DepartmentInfo::getName).toList());
+        }
+    }
+
+    @Nested
+    class ToNewEntityTests {
+        @Test
+        void shouldLeaveIdToSequence() {
+            departmentInfo.setVersion(5L);
+
+            Department result = mapper.toNewEntity(departmentInfo);
+
+            assertNull(result.getId());
+            assertNull(result.getIdAddress());
+            assertEquals(0L, result.getVersion());
+            assertEquals("Test Department", result.getName());
+        }
+
+        @Test
+        void shouldMapListForBatchInsert() {
+            List<Department> result = mapper.toNewEntities(List.of(departmentInfo, new DepartmentInfo(null, "Second", null, null)));
+
+            assertEquals(List.of("Test Department", "Second"), result.stream().map(Department::getName).toList());
+            assertTrue(result.stream().allMatch(entity -> entity.getId() == null));
+        }
+    }
+
+    @Nested
+    class UpdateEntityTests {
+        @Test
+        void shouldCopyNameOntoLoadedEntity() {
+            department.setIdAddress(7L);
+            department.setVersion(3L);
+            Instant updatedAt = Instant.parse("2024-03-01T10:15:30Z");
+            department.setUpdatedAt(updatedAt);
+
+            mapper.updateEntity(new DepartmentInfo(99L, "Renamed", 1L, Instant.now()), department);
+
+            assertEquals("Renamed", department.getName());
+            assertEquals(1L, department.getId());
+            assertEquals(7L, department.getIdAddress());
+            assertEquals(3L, department.getVersion());
+            assertEquals(updatedAt, department.getUpdatedAt());
+        }
+
+        @Test
+        void shouldLeaveEntityAlone_WhenCardIsNull() {
+            mapper.updateEntity(null, department);
+
+            assertEquals("Test Department", department.getName());
+        }
     }
 
     private static Department createDepartment(Long id, String name) {
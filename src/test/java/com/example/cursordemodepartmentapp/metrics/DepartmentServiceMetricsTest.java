@@ -0,0 +1,153 @@
+package com.example.cursordemodepartmentapp.metrics;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentServiceMetricsTest {
+
+    @Mock
+    private DepartmentService target;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DepartmentService departmentService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new DepartmentServiceMetrics(meterRegistry));
+        departmentService = proxyFactory.getProxy();
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.find(DepartmentServiceMetrics.TIMER_NAME)
+                .tags("method", method, "outcome", outcome)
+                .timer();
+    }
+
+    @Test
+    void shouldTimeSuccessfulCall() {
+        when(target.getCard(1L)).thenReturn(new DepartmentInfo());
+
+        departmentService.getCard(1L);
+
+        assertEquals(1, timer("getCard", DepartmentServiceMetrics.OUTCOME_OK).count());
+    }
+
+    @Test
+    void shouldTagNotFound() {
+        when(target.getCard(1L)).thenThrow(new DepartmentNotFoundException("Department not found with id: 1"));
+
+        assertThrows(DepartmentNotFoundException.class, () -> departmentService.getCard(1L));
+
+        assertEquals(1, timer("getCard", DepartmentServiceMetrics.OUTCOME_NOT_FOUND).count());
+        assertNull(timer("getCard", DepartmentServiceMetrics.OUTCOME_OK));
+    }
+
+    @Test
+    void shouldTagEmptyLookupAsNotFound() {
+        when(target.findCard(1L)).thenReturn(Optional.empty());
+
+        departmentService.findCard(1L);
+
+        assertEquals(1, timer("findCard", DepartmentServiceMetrics.OUTCOME_NOT_FOUND).count());
+    }
+
+    @Test
+    void shouldTagValidationError() {
+        DepartmentInfo card = new DepartmentInfo();
+        when(target.createCard(card)).thenThrow(new DepartmentValidationException("Department name cannot be empty"));
+
+        assertThrows(DepartmentValidationException.class, () -> departmentService.createCard(card));
+
+        assertEquals(1, timer("createCard", DepartmentServiceMetrics.OUTCOME_VALIDATION_ERROR).count());
+    }
+
+    @Test
+    void shouldTagEmptyCreateAsValidationError() {
+        DepartmentInfo card = new DepartmentInfo();
+        when(target.createCardIfAbsent(card)).thenReturn(Optional.empty());
+
+        departmentService.createCardIfAbsent(card);
+
+        assertEquals(1, timer("createCardIfAbsent", DepartmentServiceMetrics.OUTCOME_VALIDATION_ERROR).count());
+    }
+
+    @Test
+    void shouldTagConflict() {
+        DepartmentInfo card = new DepartmentInfo();
+        doThrow(new DepartmentConflictException("Department 1 was modified, expected version 3"))
+                .when(target).updateCard(card);
+
+        assertThrows(DepartmentConflictException.class, () -> departmentService.updateCard(card));
+
+        assertEquals(1, timer("updateCard", DepartmentServiceMetrics.OUTCOME_CONFLICT).count());
+    }
+
+    @Test
+    void shouldTagUnexpectedError() {
+        when(target.getAllCards()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> departmentService.getAllCards());
+
+        assertEquals(1, timer("getAllCards", DepartmentServiceMetrics.OUTCOME_ERROR).count());
+    }
+
+    @Test
+    void shouldRecordListSize() {
+        when(target.getAllCards()).thenReturn(List.of(new DepartmentInfo(), new DepartmentInfo()));
+
+        departmentService.getAllCards();
+
+        DistributionSummary summary = meterRegistry.find(DepartmentServiceMetrics.CARDS_NAME)
+                .tag("method", "getAllCards")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void shouldRecordPageSize() {
+        DepartmentPage page = new DepartmentPage();
+        page.setItems(List.of(new DepartmentInfo()));
+        when(target.getCardsPage(null, 10)).thenReturn(page);
+
+        departmentService.getCardsPage(null, 10);
+
+        assertEquals(1, meterRegistry.find(DepartmentServiceMetrics.CARDS_NAME)
+                .tag("method", "getCardsPage")
+                .summary()
+                .totalAmount());
+    }
+
+    @Test
+    void shouldRecordBatchSize() {
+        departmentService.deleteCards(List.of(1L, 2L, 3L));
+
+        assertEquals(3, meterRegistry.find(DepartmentServiceMetrics.CARDS_NAME)
+                .tag("method", "deleteCards")
+                .summary()
+                .totalAmount());
+    }
+} 
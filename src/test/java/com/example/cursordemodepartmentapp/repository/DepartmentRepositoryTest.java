@@ -1,6 +1,8 @@
 package com.example.cursordemodepartmentapp.repository;
 
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
 import com.example.cursordemodepartmentapp.entity.Department;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,9 +12,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -98,7 +103,7 @@ class DepartmentRepositoryTest {
         void shouldHandleNullFields() {
             department.setName(null);
             assertThrows(jakarta.validation.ConstraintViolationException.class, () -> {
-                departmentRepository.save(department);
+                departmentRepository.saveAndFlush(department);
             });
         }
 
@@ -106,7 +111,7 @@ class DepartmentRepositoryTest {
         void shouldHandleEmptyFields() {
             department.setName("");
             assertThrows(jakarta.validation.ConstraintViolationException.class, () -> {
-                departmentRepository.save(department);
+                departmentRepository.saveAndFlush(department);
             });
         }
 
@@ -198,6 +203,213 @@ class DepartmentRepositoryTest {
         }
     }
 
+    @Nested
+    class VersionTests {
+        @Test
+        void shouldIncrementVersion_WhenDepartmentUpdated() {
+            Department department = new Department();
+            department.setName("Test Department");
+            departmentRepository.saveAndFlush(department);
+            assertEquals(0, department.getVersion());
+            assertNotNull(department.getUpdatedAt());
+
+            department.setName("Updated Department");
+            departmentRepository.saveAndFlush(department);
+
+            assertEquals(1, department.getVersion());
+        }
+
+        @Test
+        void shouldChangeCollectionStamp_OnEveryWrite() {
+            DepartmentRepository.CollectionStamp empty = departmentRepository.findCollectionStamp();
+            assertEquals(0, empty.getCount());
+            assertNull(empty.getMaxId());
+
+            Department department = new Department();
+            department.setName("Test Department");
+            departmentRepository.saveAndFlush(department);
+            DepartmentRepository.CollectionStamp inserted = departmentRepository.findCollectionStamp();
+            assertEquals(1, inserted.getCount());
+            assertEquals(department.getId(), inserted.getMaxId());
+            assertEquals(0L, inserted.getVersionSum());
+
+            department.setName("Updated Department");
+            departmentRepository.saveAndFlush(department);
+            assertEquals(1L, departmentRepository.findCollectionStamp().getVersionSum());
+
+            departmentRepository.delete(department);
+            departmentRepository.flush();
+            assertEquals(0, departmentRepository.findCollectionStamp().getCount());
+        }
+    }
+
+    @Nested
+    class KeysetTests {
+        @Test
+        void shouldReturnDepartmentsAfterIdInIdOrder() {
+            Department department1 = new Department();
+            department1.setName("Test Department 1");
+            departmentRepository.save(department1);
+            Department department2 = new Department();
+            department2.setName("Test Department 2");
+            departmentRepository.save(department2);
+            Department department3 = new Department();
+            department3.setName("Test Department 3");
+            departmentRepository.save(department3);
+
+            List<DepartmentInfo> firstPage = departmentRepository.findCardsByIdGreaterThan(Long.MIN_VALUE, Limit.of(2));
+            assertEquals(2, firstPage.size());
+            assertEquals("Test Department 1", firstPage.get(0).getName());
+            assertEquals("Test Department 2", firstPage.get(1).getName());
+
+            List<DepartmentInfo> secondPage = departmentRepository.findCardsByIdGreaterThan(firstPage.get(1).getId(), Limit.of(2));
+            assertEquals(1, secondPage.size());
+            assertEquals("Test Department 3", secondPage.get(0).getName());
+        }
+
+        @Test
+        void shouldStreamDepartmentsInIdOrder() {
+            Department department1 = new Department();
+            department1.setName("Test Department 1");
+            departmentRepository.save(department1);
+            Department department2 = new Department();
+            department2.setName("Test Department 2");
+            departmentRepository.save(department2);
+
+            try (Stream<DepartmentInfo> cards = departmentRepository.streamAllCards()) {
+                List<String> names = cards.map(DepartmentInfo::getName).toList();
+                assertEquals(List.of("Test Department 1", "Test Department 2"), names);
+            }
+        }
+    }
+
+    @Nested
+    class CardProjectionTests {
+        @Test
+        void shouldSelectCardWithoutManagingEntity() {
+            Department department = new Department();
+            department.setName("Test Department");
+            department = departmentRepository.saveAndFlush(department);
+            entityManager.clear();
+
+            Optional<DepartmentInfo> card = departmentRepository.findCardById(department.getId());
+
+            assertTrue(card.isPresent());
+            assertEquals(department.getId(), card.get().getId());
+            assertEquals("Test Department", card.get().getName());
+            assertEquals(0L, card.get().getVersion());
+            assertNotNull(card.get().getUpdatedAt());
+            assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        }
+
+        @Test
+        void shouldReturnEmpty_WhenCardNotExists() {
+            assertTrue(departmentRepository.findCardById(999L).isEmpty());
+        }
+
+        @Test
+        void shouldSelectAllCardsInIdOrder() {
+            Department department1 = new Department();
+            department1.setName("Test Department 1");
+            departmentRepository.save(department1);
+            Department department2 = new Department();
+            department2.setName("Test Department 2");
+            departmentRepository.saveAndFlush(department2);
+            entityManager.clear();
+
+            List<DepartmentInfo> cards = departmentRepository.findAllCards();
+
+            assertEquals(List.of("Test Department 1", "Test Department 2"),
+                    cards.stream().map(DepartmentInfo::getName).toList());
+            assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        }
+    }
+
+    @Nested
+    class NameSearchTests {
+        @Test
+        void shouldMatchLowerCasedNameMaintainedByDatabase() {
+            for (String name : List.of("Sales North", "sales south", "Marketing", "Pre-Sales")) {
+                Department department = new Department();
+                department.setName(name);
+                departmentRepository.save(department);
+            }
+            departmentRepository.flush();
+
+            List<DepartmentInfo> prefix = departmentRepository.findCardsByNameLowerLike("sales%",
+                    Sort.by("nameLower", "id"), Limit.of(10));
+            assertEquals(List.of("Sales North", "sales south"), prefix.stream().map(DepartmentInfo::getName).toList());
+
+            List<DepartmentInfo> contains = departmentRepository.findCardsByNameLowerLike("%sales%",
+                    Sort.by("id"), Limit.of(2));
+            assertEquals(List.of("Sales North", "sales south"), contains.stream().map(DepartmentInfo::getName).toList());
+        }
+
+        @Test
+        void shouldFollowRenamesInLowerCasedName() {
+            Department department = new Department();
+            department.setName("Sales");
+            department = departmentRepository.saveAndFlush(department);
+            department.setName("Support");
+            departmentRepository.saveAndFlush(department);
+
+            assertTrue(departmentRepository.findCardsByNameLowerLike("sales%", Sort.by("id"), Limit.of(10)).isEmpty());
+            assertEquals(1, departmentRepository.findCardsByNameLowerLike("support%", Sort.by("id"), Limit.of(10)).size());
+        }
+    }
+
+    @Nested
+    class NameUniquenessTests {
+        @Test
+        void shouldReportExistingName() {
+            Department department = new Department();
+            department.setName("Test Department");
+            departmentRepository.saveAndFlush(department);
+
+            assertTrue(departmentRepository.existsByName("Test Department"));
+            assertFalse(departmentRepository.existsByName("Other Department"));
+        }
+
+        @Test
+        void shouldCheckNamesOfWholeBatch() {
+            Department department1 = new Department();
+            department1.setName("Test Department 1");
+            department1 = departmentRepository.saveAndFlush(department1);
+            Department department2 = new Department();
+            department2.setName("Test Department 2");
+            department2 = departmentRepository.saveAndFlush(department2);
+
+            assertTrue(departmentRepository.existsByNameIn(List.of("Other", "Test Department 2")));
+            assertFalse(departmentRepository.existsByNameIn(List.of("Other", "Another")));
+            assertFalse(departmentRepository.existsByNameInAndIdNotIn(
+                    List.of("Test Department 1", "Test Department 2"), List.of(department1.getId(), department2.getId())));
+            assertTrue(departmentRepository.existsByNameInAndIdNotIn(
+                    List.of("Test Department 2"), List.of(department1.getId())));
+            assertEquals(2, departmentRepository.countByIdIn(List.of(department1.getId(), department2.getId(), -1L)));
+        }
+
+        @Test
+        void shouldFindWhichNamesAreTaken() {
+            Department department = new Department();
+            department.setName("Test Department 1");
+            departmentRepository.saveAndFlush(department);
+
+            assertEquals(List.of("Test Department 1"),
+                    departmentRepository.findNamesByNameIn(List.of("Other", "Test Department 1", "test department 1")));
+        }
+
+        @Test
+        void shouldRejectDuplicateName() {
+            Department department1 = new Department();
+            department1.setName("Test Department");
+            departmentRepository.saveAndFlush(department1);
+
+            Department department2 = new Department();
+            department2.setName("Test Department");
+            assertThrows(DataIntegrityViolationException.class, () -> departmentRepository.saveAndFlush(department2));
+        }
+    }
+
     @Nested
     class DeleteTests {
         @Test
@@ -0,0 +1,87 @@
+package com.example.cursordemodepartmentapp.repository;
+
+import com.example.cursordemodepartmentapp.entity.Department;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cachetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class DepartmentSecondLevelCacheTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        Department department = new Department();
+        department.setName("Cached Department");
+        id = departmentRepository.save(department).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldInvalidateNameLookup_WhenDepartmentInserted() {
+        assertFalse(departmentRepository.existsByName("Another Department"));
+        Department department = new Department();
+        department.setName("Another Department");
+        departmentRepository.save(department);
+
+        assertTrue(departmentRepository.existsByName("Another Department"));
+    }
+
+    @Test
+    void shouldInvalidateNameLookup_WhenRenamedByBulkUpdate() {
+        assertFalse(departmentRepository.existsByName("Renamed Department"));
+        transactionTemplate.executeWithoutResult(status ->
+                departmentRepository.updateNameById(id, "Renamed Department", Instant.now()));
+
+        assertTrue(departmentRepository.existsByName("Renamed Department"));
+        assertFalse(departmentRepository.existsByName("Cached Department"));
+    }
+
+    @Test
+    void shouldServeNameLookupFromQueryCache() {
+        assertTrue(departmentRepository.existsByName("Cached Department"));
+        assertTrue(departmentRepository.existsByName("Cached Department"));
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldExposeCacheStatisticsAsMeters() {
+        departmentRepository.existsByName("Cached Department");
+
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").functionCounter());
+    }
+} 
\ No newline at end of file
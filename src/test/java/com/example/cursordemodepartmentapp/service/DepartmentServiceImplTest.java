@@ -2,8 +2,14 @@ package com.example.cursordemodepartmentapp.service;
 
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
 import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
 import com.example.cursordemodepartmentapp.mapper.DepartmentMapper;
 import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentChangeFeed;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentExporter;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentImporter;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentListSnapshots;
+import com.example.cursordemodepartmentapp.service.impl.DepartmentNameIndex;
 import com.example.cursordemodepartmentapp.service.impl.DepartmentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +24,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +36,21 @@ class DepartmentServiceImplTest {
     @Mock
     private DepartmentMapper departmentMapper;
 
+    @Mock
+    private DepartmentNameIndex departmentNameIndex;
+
+    @Mock
+    private DepartmentListSnapshots listSnapshots;
+
+    @Mock
+    private DepartmentChangeFeed changeFeed;
+
+    @Mock
+    private DepartmentImporter importer;
+
+    @Mock
+    private DepartmentExporter exporter;
+
     @InjectMocks
     private DepartmentServiceImpl departmentService;
 
@@ -48,73 +70,68 @@ class DepartmentServiceImplTest {
 
     @Test
     void getCard_ShouldReturnDepartmentInfo_WhenDepartmentExists() {
-        when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-        when(departmentMapper.toDto(department)).thenReturn(departmentInfo);
+        when(departmentRepository.findCardById(1L)).thenReturn(Optional.of(departmentInfo));
 
         DepartmentInfo result = departmentService.getCard(1L);
 
         assertNotNull(result);
         assertEquals(departmentInfo.getId(), result.getId());
         assertEquals(departmentInfo.getName(), result.getName());
-        verify(departmentRepository).findById(1L);
-        verify(departmentMapper).toDto(department);
+        verify(departmentRepository).findCardById(1L);
+        verify(departmentMapper, never()).toDto(any());
     }
 
     @Test
     void getCard_ShouldThrowException_WhenDepartmentNotFound() {
-        when(departmentRepository.findById(1L)).thenReturn(Optional.empty());
+        when(departmentRepository.findCardById(1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> departmentService.getCard(1L));
-        verify(departmentRepository).findById(1L);
+        verify(departmentRepository).findCardById(1L);
         verify(departmentMapper, never()).toDto(any());
     }
 
     @Test
     void createCard_ShouldReturnId_WhenDepartmentCreated() {
-        when(departmentMapper.toEntity(departmentInfo)).thenReturn(department);
+        when(departmentMapper.toNewEntity(departmentInfo)).thenReturn(department);
         when(departmentRepository.save(department)).thenReturn(department);
 
         Long result = departmentService.createCard(departmentInfo);
 
         assertNotNull(result);
         assertEquals(department.getId(), result);
-        verify(departmentMapper).toEntity(departmentInfo);
+        verify(departmentMapper).toNewEntity(departmentInfo);
         verify(departmentRepository).save(department);
     }
 
     @Test
     void createCard_ShouldThrowException_WhenDepartmentInfoIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> departmentService.createCard(null));
-        verify(departmentMapper, never()).toEntity(any());
+        assertThrows(DepartmentValidationException.class, () -> departmentService.createCard(null));
+        verify(departmentMapper, never()).toNewEntity(any());
         verify(departmentRepository, never()).save(any());
     }
 
     @Test
     void updateCard_ShouldUpdateDepartment_WhenDepartmentExists() {
-        when(departmentRepository.findById(departmentInfo.getId())).thenReturn(Optional.of(department));
-        when(departmentMapper.toEntity(departmentInfo)).thenReturn(department);
-        when(departmentRepository.save(department)).thenReturn(department);
+        when(departmentRepository.updateNameById(eq(departmentInfo.getId()), eq(departmentInfo.getName()), any())).thenReturn(1);
 
         assertDoesNotThrow(() -> departmentService.updateCard(departmentInfo));
-        verify(departmentRepository).findById(departmentInfo.getId());
-        verify(departmentMapper).toEntity(departmentInfo);
-        verify(departmentRepository).save(department);
+        verify(departmentRepository, never()).findById(any());
+        verify(departmentRepository, never()).save(any());
     }
 
     @Test
     void updateCard_ShouldThrowException_WhenDepartmentNotFound() {
-        when(departmentRepository.findById(departmentInfo.getId())).thenReturn(Optional.empty());
+        when(departmentRepository.updateNameById(eq(departmentInfo.getId()), eq(departmentInfo.getName()), any())).thenReturn(0);
 
         assertThrows(RuntimeException.class, () -> departmentService.updateCard(departmentInfo));
-        verify(departmentRepository).findById(departmentInfo.getId());
         verify(departmentMapper, never()).toEntity(any());
         verify(departmentRepository, never()).save(any());
     }
 
     @Test
     void updateCard_ShouldThrowException_WhenDepartmentInfoIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(null));
-        verify(departmentRepository, never()).findById(any());
+        assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(null));
+        verify(departmentRepository, never()).updateNameById(any(), any(), any());
         verify(departmentMapper, never()).toEntity(any());
         verify(departmentRepository, never()).save(any());
     }
@@ -140,11 +157,9 @@ class DepartmentServiceImplTest {
 
     @Test
     void getAllCards_ShouldReturnListOfDepartmentInfo() {
-        List<Department> departments = Arrays.asList(department);
         List<DepartmentInfo> departmentInfos = Arrays.asList(departmentInfo);
 
-        when(departmentRepository.findAll()).thenReturn(departments);
-        when(departmentMapper.toDto(department)).thenReturn(departmentInfo);
+        when(departmentRepository.findAllCards()).thenReturn(departmentInfos);
 
         List<DepartmentInfo> result = departmentService.getAllCards();
 
@@ -152,19 +167,19 @@ class DepartmentServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(departmentInfo.getId(), result.get(0).getId());
         assertEquals(departmentInfo.getName(), result.get(0).getName());
-        verify(departmentRepository).findAll();
-        verify(departmentMapper).toDto(department);
+        verify(departmentRepository).findAllCards();
+        verify(departmentMapper, never()).toDto(any());
     }
 
     @Test
     void getAllCards_ShouldReturnEmptyList_WhenNoDepartmentsExist() {
-        when(departmentRepository.findAll()).thenReturn(List.of());
+        when(departmentRepository.findAllCards()).thenReturn(List.of());
 
         List<DepartmentInfo> result = departmentService.getAllCards();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(departmentRepository).findAll();
+        verify(departmentRepository).findAllCards();
         verify(departmentMapper, never()).toDto(any());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.exception.DepartmentChangesExpiredException;
+import com.example.cursordemodepartmentapp.repository.DepartmentChangeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentChangeFeedTest {
+
+    private static final long LAST_SEQ = 5;
+    private static final String NEXT_SEQ_BLOCK = "select next value for department_change_seq";
+
+    @Mock
+    private DepartmentChangeRepository changeRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactoryImplementor sessionFactory;
+
+    private DepartmentChangeFeed feed;
+
+    private final DepartmentChangeInfo change = new DepartmentChangeInfo(6L, DepartmentChange.Type.CREATED, 1L, "Sales");
+
+    @BeforeEach
+    void setUp() {
+        feed = new DepartmentChangeFeed(changeRepository, jdbcTemplate, transactionManager, entityManagerFactory,
+                Duration.ofDays(7));
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getJdbcServices().getDialect()).thenReturn(new H2Dialect());
+        lenient().when(changeRepository.findLastSeq()).thenReturn(LAST_SEQ);
+        lenient().when(jdbcTemplate.queryForObject(NEXT_SEQ_BLOCK, Long.class)).thenReturn(LAST_SEQ + 1);
+        feed.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records the changes in a transaction left open; running the returned callbacks ends it.
+     */
+    private List<TransactionSynchronization> recordInOpenTransaction(List<DepartmentChange> changes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.record(changes);
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> transaction, int status) {
+        transaction.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private void commit(List<DepartmentChange> changes) {
+        complete(recordInOpenTransaction(changes), TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    @Nested
+    class RecordTests {
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldNumberChangesFromSequenceAndInsertOneBatch() {
+            List<DepartmentChange> changes = List.of(DepartmentChange.updated(1L, "Sales"), DepartmentChange.deleted(2L));
+
+            commit(changes);
+
+            assertEquals(List.of(6L, 7L), changes.stream().map(DepartmentChange::getSeq).toList());
+            assertNotNull(changes.get(0).getChangedAt());
+            verify(jdbcTemplate).batchUpdate(anyString(), eq(changes), eq(2), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(7L, feed.visibleSeq());
+        }
+
+        @Test
+        void shouldFetchNextBlock_WhenCurrentOneRunsOut() {
+            when(jdbcTemplate.queryForObject(NEXT_SEQ_BLOCK, Long.class)).thenReturn(LAST_SEQ + 1, 5001L);
+            List<DepartmentChange> changes = new ArrayList<>();
+            for (long id = 1; id <= DepartmentChange.SEQ_ALLOCATION_SIZE + 1; id++) {
+                changes.add(DepartmentChange.deleted(id));
+            }
+
+            commit(changes);
+
+            assertEquals(LAST_SEQ + 1, changes.get(0).getSeq());
+            assertEquals(LAST_SEQ + DepartmentChange.SEQ_ALLOCATION_SIZE, changes.get(changes.size() - 2).getSeq());
+            assertEquals(5001L, changes.get(changes.size() - 1).getSeq());
+            verify(jdbcTemplate, times(2)).queryForObject(NEXT_SEQ_BLOCK, Long.class);
+        }
+
+        @Test
+        void shouldHideChanges_UntilEveryEarlierTransactionEnds() {
+            List<TransactionSynchronization> first = recordInOpenTransaction(List.of(DepartmentChange.deleted(1L)));
+            List<TransactionSynchronization> second = recordInOpenTransaction(List.of(DepartmentChange.deleted(2L)));
+            List<TransactionSynchronization> third = recordInOpenTransaction(List.of(DepartmentChange.deleted(3L)));
+
+            complete(second, TransactionSynchronization.STATUS_COMMITTED);
+            assertEquals(LAST_SEQ, feed.visibleSeq());
+
+            complete(first, TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertEquals(LAST_SEQ + 2, feed.visibleSeq());
+
+            complete(third, TransactionSynchronization.STATUS_COMMITTED);
+            assertEquals(LAST_SEQ + 3, feed.visibleSeq());
+        }
+
+        @Test
+        void shouldFail_WhenNoTransactionIsActive() {
+            assertThrows(IllegalStateException.class, () -> feed.record(List.of(DepartmentChange.deleted(1L))));
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    class PruneTests {
+        @Test
+        void shouldDeleteExpiredChanges_AndRejectReadersBehindThem() {
+            when(changeRepository.findLastSeqChangedBefore(any())).thenReturn(3L);
+
+            feed.prune();
+
+            verify(changeRepository).deleteUpTo(3L);
+            assertThrows(DepartmentChangesExpiredException.class, () -> feed.await(2L, 10, Duration.ZERO));
+            assertDoesNotThrow(() -> feed.await(3L, 10, Duration.ZERO));
+        }
+
+        @Test
+        void shouldKeepEverything_WhenNothingExpired() {
+            when(changeRepository.findLastSeqChangedBefore(any())).thenReturn(null);
+
+            feed.prune();
+
+            verify(changeRepository, never()).deleteUpTo(anyLong());
+            assertDoesNotThrow(() -> feed.await(0L, 10, Duration.ZERO));
+        }
+    }
+
+    @Nested
+    class AwaitTests {
+        @Test
+        void shouldAnswerRightAway_WhenChangesAreWaiting() throws Exception {
+            when(changeRepository.findChangesAfter(4L, LAST_SEQ, Limit.of(10))).thenReturn(List.of(change));
+
+            CompletableFuture<List<DepartmentChangeInfo>> changes = feed.await(4L, 10, Duration.ofSeconds(30));
+
+            assertEquals(List.of(change), changes.get(0, TimeUnit.SECONDS));
+            assertEquals(0, feed.waiting());
+        }
+
+        @Test
+        void shouldNotWait_WhenTimeoutIsZero() throws Exception {
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ, Limit.of(10))).thenReturn(List.of());
+
+            assertEquals(List.of(), feed.await(LAST_SEQ, 10, Duration.ZERO).get(0, TimeUnit.SECONDS));
+            assertEquals(0, feed.waiting());
+        }
+
+        @Test
+        void shouldWakeUp_WhenWriteCommits() throws Exception {
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ, Limit.of(10))).thenReturn(List.of());
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ + 1, Limit.of(10))).thenReturn(List.of(change));
+
+            CompletableFuture<List<DepartmentChangeInfo>> first = feed.await(LAST_SEQ, 10, Duration.ofSeconds(30));
+            CompletableFuture<List<DepartmentChangeInfo>> second = feed.await(LAST_SEQ, 10, Duration.ofSeconds(30));
+            assertFalse(first.isDone());
+            assertEquals(2, feed.waiting());
+
+            commit(List.of(DepartmentChange.created(1L, "Sales")));
+
+            assertEquals(List.of(change), first.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(change), second.get(5, TimeUnit.SECONDS));
+            // Both readers were woken by a single query
+            verify(changeRepository, times(1)).findChangesAfter(LAST_SEQ, LAST_SEQ + 1, Limit.of(10));
+        }
+
+        @Test
+        void shouldReturnEmptyList_WhenWaitRunsOut() throws Exception {
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ, Limit.of(10))).thenReturn(List.of());
+
+            assertEquals(List.of(), feed.await(LAST_SEQ, 10, Duration.ofMillis(20)).get(5, TimeUnit.SECONDS));
+            assertEquals(0, feed.waiting());
+        }
+
+        @Test
+        void shouldForgetCancelledReader() {
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ, Limit.of(10))).thenReturn(List.of());
+
+            feed.await(LAST_SEQ, 10, Duration.ofSeconds(30)).cancel(false);
+
+            assertEquals(0, feed.waiting());
+            feed.committed();
+            verify(changeRepository, times(1)).findChangesAfter(anyLong(), anyLong(), any());
+        }
+    }
+
+    @Nested
+    class LiveTests {
+        @Test
+        void shouldPushCommittedChangesToEverySubscriber() throws Exception {
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ + 1, Limit.of(DepartmentChangeFeed.PUBLISH_BATCH_SIZE)))
+                    .thenReturn(List.of(change));
+            CountDownLatch received = new CountDownLatch(2);
+            feed.live().subscribe(pushed -> received.countDown());
+            feed.live().subscribe(pushed -> received.countDown());
+            waitUntil(() -> feed.streaming() == 2);
+
+            commit(List.of(DepartmentChange.created(1L, "Sales")));
+
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            // One query serves every subscriber
+            verify(changeRepository, times(1)).findChangesAfter(anyLong(), anyLong(), any());
+        }
+
+        @Test
+        void shouldEndStream_WhenSubscriberFallsBehind() throws Exception {
+            List<DepartmentChange> writes = new ArrayList<>();
+            for (long id = 1; id <= DepartmentChangeFeed.STREAM_BUFFER_SIZE + 1; id++) {
+                writes.add(DepartmentChange.updated(1L, "Sales " + id));
+            }
+            List<DepartmentChangeInfo> burst = LongStream.rangeClosed(LAST_SEQ + 1, LAST_SEQ + writes.size())
+                    .mapToObj(seq -> new DepartmentChangeInfo(seq, DepartmentChange.Type.UPDATED, 1L, "Sales " + seq))
+                    .toList();
+            when(changeRepository.findChangesAfter(LAST_SEQ, LAST_SEQ + writes.size(), Limit.of(DepartmentChangeFeed.PUBLISH_BATCH_SIZE)))
+                    .thenReturn(burst);
+            CountDownLatch completed = new CountDownLatch(1);
+            // Never requests anything, like a client that stopped reading
+            feed.live().subscribe(new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                }
+
+                @Override
+                protected void hookOnComplete() {
+                    completed.countDown();
+                }
+            });
+            waitUntil(() -> feed.streaming() == 1);
+
+            commit(writes);
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            waitUntil(() -> feed.streaming() == 0);
+        }
+
+        @Test
+        void shouldNotQuery_WhenNobodyListens() {
+            commit(List.of(DepartmentChange.created(1L, "Sales")));
+
+            verify(changeRepository, never()).findChangesAfter(anyLong(), anyLong(), any());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a bare H2 table, since the cursor and the encoding are the point.
+ */
+class DepartmentExporterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DepartmentExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:exporter-test;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE department (id BIGINT PRIMARY KEY, name VARCHAR(255), version BIGINT)");
+        exporter = new DepartmentExporter(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE department");
+    }
+
+    private void insert(long id, String name, long version) {
+        jdbcTemplate.update("INSERT INTO department (id, name, version) VALUES (?, ?, ?)", id, name, version);
+    }
+
+    private byte[] export(String format, boolean gzip) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.exportCards(Channels.newChannel(output), format, gzip);
+        return output.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    @Test
+    void shouldWriteCsvInIdOrderWithQuotedFields() {
+        insert(2, "Sales, \"North\"", 3);
+        insert(1, "HR", 0);
+        insert(3, "Two\nlines", 1);
+
+        String csv = new String(export(DepartmentExporter.FORMAT_CSV, false), StandardCharsets.UTF_8);
+
+        assertEquals("id,name,version\n1,HR,0\n2,\"Sales, \"\"North\"\"\",3\n3,\"Two\nlines\",1\n", csv);
+    }
+
+    @Test
+    void shouldWriteNdjsonThatJacksonReadsBack() throws IOException {
+        String name = "Отдел \"A\\B\"\t\u0001\n";
+        insert(1, name, 2);
+
+        String ndjson = new String(export(DepartmentExporter.FORMAT_NDJSON, false), StandardCharsets.UTF_8);
+
+        assertTrue(ndjson.endsWith("}\n"));
+        DepartmentInfo card = new ObjectMapper().readValue(ndjson, DepartmentInfo.class);
+        assertEquals(1L, card.getId());
+        assertEquals(name, card.getName());
+        assertEquals(2L, card.getVersion());
+    }
+
+    @Test
+    void shouldGzipSameBytes_WhenExportOutgrowsBuffers() throws IOException {
+        String padding = "x".repeat(200);
+        for (long id = 1; id <= 2000; id++) {
+            insert(id, "Department " + id + " " + padding, 0);
+        }
+
+        byte[] plain = export(DepartmentExporter.FORMAT_NDJSON, false);
+        byte[] gzipped = export(DepartmentExporter.FORMAT_NDJSON, true);
+
+        assertTrue(plain.length > 4 * DepartmentExporter.BUFFER_SIZE);
+        assertArrayEquals(plain, gunzip(gzipped));
+        assertTrue(gzipped.length < plain.length / 10);
+    }
+
+    @Test
+    void shouldWriteValidEmptyFiles_WhenTableIsEmpty() throws IOException {
+        assertEquals(0, export(DepartmentExporter.FORMAT_NDJSON, false).length);
+        assertEquals("id,name,version\n",
+                new String(gunzip(export(DepartmentExporter.FORMAT_CSV, true)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldCountWrittenRows() {
+        insert(1, "HR", 0);
+        insert(2, "Sales", 0);
+
+        assertEquals(2, exporter.exportCards(Channels.newChannel(new ByteArrayOutputStream()),
+                DepartmentExporter.FORMAT_CSV, true));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(DepartmentValidationException.class, () -> export("xml", false));
+        assertEquals(List.of(), jdbcTemplate.queryForList("SELECT id FROM department"));
+    }
+}
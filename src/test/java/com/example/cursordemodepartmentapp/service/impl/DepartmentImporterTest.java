@@ -0,0 +1,215 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentImportError;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentImporterTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private DepartmentImporter importer;
+
+    private final List<List<DepartmentInfo>> inserted = new ArrayList<>();
+    private final Function<List<DepartmentInfo>, List<Long>> insert = cards -> {
+        inserted.add(cards);
+        return cards.stream().map(card -> 1L).toList();
+    };
+    private final List<Long> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Configured like the mapper Spring Boot provides
+        ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        importer = new DepartmentImporter(departmentRepository, transactionManager, entityManager, objectMapper);
+        lenient().when(departmentRepository.findNamesByNameIn(anyCollection())).thenReturn(List.of());
+    }
+
+    private DepartmentImportReport importFile(String file, String format) {
+        return importer.importCards(new StringReader(file), format, insert,
+                report -> progress.add(report.getProcessed()));
+    }
+
+    private static List<String> names(List<DepartmentInfo> cards) {
+        return cards.stream().map(DepartmentInfo::getName).toList();
+    }
+
+    private static String describe(DepartmentImportError error) {
+        return error.getLine() + ": " + error.getMessage();
+    }
+
+    @Nested
+    class CsvTests {
+        @Test
+        void shouldImportInChunks() {
+            StringBuilder file = new StringBuilder("id,name\n");
+            for (int i = 1; i <= DepartmentImporter.CHUNK_SIZE + 500; i++) {
+                file.append(i).append(",Department ").append(i).append('\n');
+            }
+
+            DepartmentImportReport report = importFile(file.toString(), DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(DepartmentImporter.CHUNK_SIZE + 500, report.getImported());
+            assertEquals(0, report.getRejected());
+            assertEquals(List.of(DepartmentImporter.CHUNK_SIZE, 500), inserted.stream().map(List::size).toList());
+            assertEquals(List.of((long) DepartmentImporter.CHUNK_SIZE, DepartmentImporter.CHUNK_SIZE + 500L), progress);
+            // Each chunk leaves the persistence context empty
+            verify(entityManager, times(2)).clear();
+        }
+
+        @Test
+        void shouldReadQuotedFields() {
+            String file = "name,note\n\"Sales, North\",x\n\"Say \"\"hi\"\"\"\n\"Two\nlines\"\nLast\n";
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(4, report.getImported());
+            assertEquals(List.of("Sales, North", "Say \"hi\"", "Two\nlines", "Last"), names(inserted.get(0)));
+        }
+
+        @Test
+        void shouldReportRejectedRowsByLine() {
+            when(departmentRepository.findNamesByNameIn(anyCollection())).thenReturn(List.of("Taken"));
+            String file = "name\nSales\n\n \nTaken\nSales\n" + "x".repeat(256) + "\nHR\n";
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(6, report.getProcessed());
+            assertEquals(2, report.getImported());
+            assertEquals(4, report.getRejected());
+            assertEquals(List.of(
+                    "4: Department name cannot be null or empty",
+                    "6: Department name repeats line 2",
+                    "7: Department name cannot be longer than 255 characters",
+                    "5: Department with this name already exists"),
+                    report.getErrors().stream().map(DepartmentImporterTest::describe).toList());
+            assertEquals(List.of("Sales", "HR"), names(inserted.get(0)));
+        }
+
+        @Test
+        void shouldReportUnclosedQuote() {
+            DepartmentImportReport report = importFile("name\nSales\n\"Open\n", DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(1, report.getImported());
+            assertEquals("3: Quoted field is not closed", describe(report.getErrors().get(0)));
+        }
+
+        @Test
+        void shouldRejectRow_WhenLongerThanLimit() {
+            String file = "name\r\nSales\r\n" + "x".repeat(DepartmentImporter.MAX_ROW_LENGTH + 1) + "\r\nHR\r\n";
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(List.of("Sales", "HR"), names(inserted.get(0)));
+            assertEquals(List.of("3: Row is longer than 4096 characters"),
+                    report.getErrors().stream().map(DepartmentImporterTest::describe).toList());
+        }
+
+        @Test
+        void shouldStopCollectingQuotedField_WhenRowExceedsLimit() {
+            String file = "name\nSales\n\"Open\n" + "Filler line\n".repeat(1000);
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_CSV);
+
+            assertEquals("3: Row is longer than 4096 characters", describe(report.getErrors().get(0)));
+            assertEquals(List.of("Sales", "Filler line"), names(inserted.get(0)));
+        }
+
+        @Test
+        void shouldFail_WhenHeaderHasNoNameColumn() {
+            assertThrows(DepartmentValidationException.class, () -> importFile("id,title\n1,Sales\n", DepartmentImporter.FORMAT_CSV));
+            assertTrue(inserted.isEmpty());
+        }
+
+        @Test
+        void shouldKeepOnlyFirstErrors() {
+            String file = "name\n" + ",\n".repeat(DepartmentImporter.MAX_REPORTED_ERRORS + 200);
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_CSV);
+
+            assertEquals(DepartmentImporter.MAX_REPORTED_ERRORS + 200, report.getRejected());
+            assertEquals(DepartmentImporter.MAX_REPORTED_ERRORS, report.getErrors().size());
+            verifyNoInteractions(departmentRepository, transactionManager);
+        }
+    }
+
+    @Nested
+    class NdjsonTests {
+        @Test
+        void shouldImportObjectsAndReportMalformedLines() {
+            String file = "{\"name\":\"Sales\"}\n{\"name\":\n\nnull\n{\"id\":7,\"name\":\"HR\",\"unknown\":1}\n";
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_NDJSON);
+
+            assertEquals(2, report.getImported());
+            assertEquals(List.of("Sales", "HR"), names(inserted.get(0)));
+            assertEquals(2, report.getErrors().size());
+            assertTrue(describe(report.getErrors().get(0)).startsWith("2: Malformed row"));
+            assertEquals("4: Department info cannot be null", describe(report.getErrors().get(1)));
+        }
+
+        @Test
+        void shouldRejectLine_WhenLongerThanLimit() {
+            String file = "{\"name\":\"" + "x".repeat(DepartmentImporter.MAX_ROW_LENGTH) + "\"}\n{\"name\":\"HR\"}";
+
+            DepartmentImportReport report = importFile(file, DepartmentImporter.FORMAT_NDJSON);
+
+            assertEquals(List.of("HR"), names(inserted.get(0)));
+            assertEquals("1: Row is longer than 4096 characters", describe(report.getErrors().get(0)));
+        }
+    }
+
+    @Test
+    void shouldRetryRowByRow_WhenConcurrentWriteTakesName() {
+        Function<List<DepartmentInfo>, List<Long>> racingInsert = cards -> {
+            if (cards.size() > 1 || cards.get(0).getName().equals("Taken")) {
+                throw new DataIntegrityViolationException("department_name_uindex");
+            }
+            return insert.apply(cards);
+        };
+
+        DepartmentImportReport report = importer.importCards(new StringReader("name\nSales\nTaken\nHR\n"),
+                DepartmentImporter.FORMAT_CSV, racingInsert, progress -> {
+                });
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of("3: Department with this name already exists"),
+                report.getErrors().stream().map(DepartmentImporterTest::describe).toList());
+        assertEquals(List.of(List.of("Sales"), List.of("HR")), inserted.stream().map(DepartmentImporterTest::names).toList());
+    }
+
+    @Test
+    void shouldFail_WhenFormatIsUnknown() {
+        assertThrows(DepartmentValidationException.class, () -> importFile("name\nSales\n", "xml"));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentListSnapshot;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentListSnapshotsTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DepartmentListSnapshots snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new DepartmentListSnapshots(departmentRepository, transactionManager, new ObjectMapper());
+        lenient().when(departmentRepository.findAllCards()).thenReturn(List.of(
+                new DepartmentInfo(1L, "Department 1", 2L, null),
+                new DepartmentInfo(3L, "Department 3", 0L, null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldSerializeCardsWithCollectionETag() throws IOException {
+        DepartmentListSnapshot snapshot = snapshots.get();
+
+        String json = "[{\"id\":1,\"name\":\"Department 1\",\"version\":2},{\"id\":3,\"name\":\"Department 3\",\"version\":0}]";
+        assertEquals(json, new String(snapshot.getJson(), StandardCharsets.UTF_8));
+        assertEquals(DepartmentServiceImpl.collectionETag(2, 3L, 2L), snapshot.getETag());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzippedJson()))) {
+            assertArrayEquals(snapshot.getJson(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldTagEmptyListLikeCollectionStamp() {
+        when(departmentRepository.findAllCards()).thenReturn(List.of());
+
+        assertEquals(DepartmentServiceImpl.collectionETag(0, null, null), snapshots.get().getETag());
+    }
+
+    @Test
+    void shouldReuseSnapshotUntilInvalidated() {
+        DepartmentListSnapshot first = snapshots.get();
+
+        assertSame(first, snapshots.get());
+        verify(departmentRepository, times(1)).findAllCards();
+
+        snapshots.invalidate();
+
+        assertNotSame(first, snapshots.get());
+        verify(departmentRepository, times(2)).findAllCards();
+    }
+
+    @Test
+    void shouldWithdrawSnapshot_WhenInvalidatedWhileBuilding() {
+        when(departmentRepository.findAllCards()).thenAnswer(invocation -> {
+            // A write commits while the rows are being read
+            snapshots.invalidate();
+            return List.of(new DepartmentInfo(1L, "Department 1", 0L, null));
+        });
+
+        snapshots.get();
+        snapshots.get();
+
+        verify(departmentRepository, times(2)).findAllCards();
+    }
+
+    @Test
+    void shouldNotPublishSnapshot_BuiltInsideCallersTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        snapshots.get();
+        snapshots.get();
+
+        verify(departmentRepository, times(2)).findAllCards();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentNameIndexTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DepartmentNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DepartmentNameIndex(departmentRepository, transactionManager);
+    }
+
+    private static List<String> names(List<DepartmentInfo> cards) {
+        return cards.stream().map(DepartmentInfo::getName).toList();
+    }
+
+    @Nested
+    class SuggestTests {
+        @BeforeEach
+        void setUp() {
+            index.put(index.stamp(), 3L, "sales South");
+            index.put(index.stamp(), 1L, "Sales North");
+            index.put(index.stamp(), 2L, "Pre-Sales");
+            index.put(index.stamp(), 4L, "Marketing");
+        }
+
+        @Test
+        void shouldMatchPrefixIgnoringCaseInNameOrder() {
+            List<DepartmentInfo> suggestions = index.suggest("SAL", 10);
+
+            assertEquals(List.of("Sales North", "sales South"), names(suggestions));
+            assertEquals(List.of(1L, 3L), suggestions.stream().map(DepartmentInfo::getId).toList());
+            assertNull(suggestions.get(0).getVersion());
+        }
+
+        @Test
+        void shouldStopAtLimit() {
+            assertEquals(List.of("Sales North"), names(index.suggest("sales", 1)));
+        }
+
+        @Test
+        void shouldReturnEmptyList_WhenNothingMatches() {
+            assertTrue(index.suggest("z", 10).isEmpty());
+            assertTrue(index.suggest("sales southern", 10).isEmpty());
+        }
+
+        @Test
+        void shouldOrderSameNameIgnoringCaseById() {
+            index.put(index.stamp(), 0L, "SALES NORTH");
+
+            assertEquals(List.of(0L, 1L), index.suggest("sales n", 10).stream().map(DepartmentInfo::getId).toList());
+        }
+    }
+
+    @Nested
+    class UpdateTests {
+        @Test
+        void shouldReplaceOldName_WhenRenamed() {
+            index.put(index.stamp(), 1L, "Sales");
+            index.put(index.stamp(), 1L, "Marketing");
+
+            assertTrue(index.suggest("sales", 10).isEmpty());
+            assertEquals(List.of("Marketing"), names(index.suggest("mark", 10)));
+            assertEquals(1, index.size());
+        }
+
+        @Test
+        void shouldDropRemovedDepartment() {
+            index.put(index.stamp(), 1L, "Sales");
+            index.remove(index.stamp(), 1L);
+            index.remove(index.stamp(), 2L);
+
+            assertTrue(index.suggest("sales", 10).isEmpty());
+            assertEquals(0, index.size());
+        }
+
+        @Test
+        void shouldReplaceContents_WhenRebuilt() {
+            index.put(index.stamp(), 1L, "Stale");
+            when(departmentRepository.streamAllCards())
+                    .thenReturn(Stream.of(new DepartmentInfo(2L, "Sales", 0L, null)));
+
+            index.rebuild();
+
+            assertTrue(index.suggest("stale", 10).isEmpty());
+            assertEquals(List.of("Sales"), names(index.suggest("s", 10)));
+        }
+    }
+
+    @Nested
+    class OrderingTests {
+        @Test
+        void shouldIgnoreOlderWrite_WhenItsCallbackRunsLast() {
+            long older = index.stamp();
+            long newer = index.stamp();
+
+            index.put(newer, 1L, "Marketing");
+            index.put(older, 1L, "Sales");
+
+            assertEquals(List.of("Marketing"), names(index.suggest("m", 10)));
+            assertTrue(index.suggest("sales", 10).isEmpty());
+        }
+
+        @Test
+        void shouldNotRestoreRemovedDepartment_WhenEarlierPutRunsLast() {
+            long created = index.stamp();
+            long removed = index.stamp();
+
+            index.remove(removed, 1L);
+            index.put(created, 1L, "Sales");
+
+            assertTrue(index.suggest("sales", 10).isEmpty());
+            assertEquals(0, index.size());
+        }
+
+        @Test
+        void shouldForgetOldestRemovals_BeyondLimit() {
+            for (long id = 1; id <= DepartmentNameIndex.MAX_REMOVED_IDS + 1; id++) {
+                index.remove(index.stamp(), id);
+            }
+
+            index.put(index.stamp(), 1L, "Sales");
+            index.put(index.stamp(), 2L, "Marketing");
+
+            assertEquals(List.of("Sales"), names(index.suggest("s", 10)));
+            assertTrue(index.suggest("m", 10).isEmpty());
+        }
+    }
+
+    @Nested
+    class RebuildTests {
+        @Test
+        void shouldKeepWritesCommittedWhileTableIsRead() {
+            index.put(index.stamp(), 2L, "Sales");
+            // Both commits land after the read has passed their rows
+            when(departmentRepository.streamAllCards()).thenReturn(Stream.of(new DepartmentInfo(2L, "Sales", 0L, null))
+                    .peek(card -> {
+                        index.put(index.stamp(), 3L, "Marketing");
+                        index.remove(index.stamp(), 2L);
+                    }));
+
+            index.rebuild();
+
+            assertEquals(List.of("Marketing"), names(index.suggest("", 10)));
+            assertEquals(1, index.size());
+        }
+
+        @Test
+        void shouldIgnoreOlderWrite_WhenItsCallbackRunsAfterRebuild() {
+            long older = index.stamp();
+            index.put(index.stamp(), 1L, "Marketing");
+            when(departmentRepository.streamAllCards()).thenReturn(Stream.of(new DepartmentInfo(1L, "Marketing", 1L, null)));
+
+            index.rebuild();
+            index.put(older, 1L, "Sales");
+
+            assertEquals(List.of("Marketing"), names(index.suggest("", 10)));
+        }
+
+        @Test
+        void shouldNotRestoreRemovedDepartment_WhenEarlierPutRunsAfterRebuild() {
+            long created = index.stamp();
+            index.remove(index.stamp(), 1L);
+            when(departmentRepository.streamAllCards()).thenReturn(Stream.empty());
+
+            index.rebuild();
+            index.put(created, 1L, "Sales");
+
+            assertTrue(index.suggest("", 10).isEmpty());
+        }
+
+        @Test
+        void shouldKeepRowWrittenAroundServices_WhenIdWasRemovedBefore() {
+            index.remove(index.stamp(), 1L);
+            when(departmentRepository.streamAllCards()).thenReturn(Stream.of(new DepartmentInfo(1L, "Sales", 0L, null)));
+
+            index.rebuild();
+
+            assertEquals(List.of("Sales"), names(index.suggest("", 10)));
+        }
+    }
+} 
\ No newline at end of file
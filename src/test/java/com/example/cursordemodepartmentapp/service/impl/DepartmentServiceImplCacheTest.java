@@ -0,0 +1,137 @@
+package com.example.cursordemodepartmentapp.service.impl;
+
+import com.example.cursordemodepartmentapp.config.CacheConfig;
+import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
+import com.example.cursordemodepartmentapp.service.DepartmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cachetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class DepartmentServiceImplCacheTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private DepartmentRepository departmentRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE).clear();
+        DepartmentInfo card = new DepartmentInfo();
+        card.setName("Cached Department");
+        id = departmentService.createCard(card);
+        clearInvocations(departmentRepository);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        DepartmentInfo first = departmentService.getCard(id);
+        DepartmentInfo second = departmentService.getCard(id);
+
+        assertEquals("Cached Department", first.getName());
+        assertEquals("Cached Department", second.getName());
+        verify(departmentRepository, times(1)).findCardById(id);
+    }
+
+    @Test
+    void shouldShareEntriesBetweenGetCardAndFindCard() {
+        departmentService.getCard(id);
+
+        assertEquals("Cached Department", departmentService.findCard(id).orElseThrow().getName());
+        assertTrue(departmentService.findCard(id + 1000).isEmpty());
+        assertTrue(departmentService.findCard(id + 1000).isEmpty());
+
+        verify(departmentRepository, times(1)).findCardById(id);
+        verify(departmentRepository, times(2)).findCardById(id + 1000);
+    }
+
+    @Test
+    void shouldEvictEntry_WhenDepartmentUpdated() {
+        departmentService.getCard(id);
+
+        DepartmentInfo update = new DepartmentInfo();
+        update.setId(id);
+        update.setName("Renamed Department");
+        departmentService.updateCard(update);
+
+        assertEquals("Renamed Department", departmentService.getCard(id).getName());
+    }
+
+    @Test
+    void shouldNotCacheStaleCard_WhenReadLoadsBeforeUpdateCommits() throws Exception {
+        Optional<DepartmentInfo> oldCard = departmentRepository.findCardById(id);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loaded.countDown();
+            assertTrue(updated.await(10, TimeUnit.SECONDS));
+            return oldCard;
+        }).when(departmentRepository).findCardById(id);
+
+        // The reader loads the old row, then waits to put it until the update has committed and evicted
+        CompletableFuture<DepartmentInfo> read = CompletableFuture.supplyAsync(() -> departmentService.getCard(id));
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        departmentService.updateCard(new DepartmentInfo(id, "Renamed Department", null, null));
+        updated.countDown();
+
+        assertEquals("Cached Department", read.get(10, TimeUnit.SECONDS).getName());
+        reset(departmentRepository);
+        assertEquals("Renamed Department", departmentService.getCard(id).getName());
+    }
+
+    @Test
+    void shouldEvictEntry_WhenDepartmentDeleted() {
+        departmentService.getCard(id);
+
+        departmentService.deleteCard(id);
+
+        assertThrows(RuntimeException.class, () -> departmentService.getCard(id));
+        assertNull(cacheManager.getCache(CacheConfig.DEPARTMENT_CACHE).get(id));
+    }
+
+    @Test
+    void shouldNotCacheMissingDepartments() {
+        assertThrows(RuntimeException.class, () -> departmentService.getCard(id + 1000));
+        assertThrows(RuntimeException.class, () -> departmentService.getCard(id + 1000));
+
+        verify(departmentRepository, times(2)).findCardById(id + 1000);
+    }
+
+    @Test
+    void shouldPublishCacheMetrics() {
+        departmentService.getCard(id);
+        departmentService.getCard(id);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.DEPARTMENT_CACHE).tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.DEPARTMENT_CACHE).tag("result", "miss").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.DEPARTMENT_CACHE).functionCounter());
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", CacheConfig.DEPARTMENT_CACHE).tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+}
@@ -1,26 +1,49 @@
 package com.example.cursordemodepartmentapp.service.impl;
 
+import com.example.cursordemodepartmentapp.dto.DepartmentChangeInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentImportReport;
 import com.example.cursordemodepartmentapp.dto.DepartmentInfo;
+import com.example.cursordemodepartmentapp.dto.DepartmentPage;
 import com.example.cursordemodepartmentapp.entity.Department;
+import com.example.cursordemodepartmentapp.entity.DepartmentChange;
+import com.example.cursordemodepartmentapp.exception.DepartmentConflictException;
+import com.example.cursordemodepartmentapp.exception.DepartmentNotFoundException;
+import com.example.cursordemodepartmentapp.exception.DepartmentValidationException;
 import com.example.cursordemodepartmentapp.repository.DepartmentRepository;
 import com.example.cursordemodepartmentapp.mapper.DepartmentMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 
@@ -33,6 +56,21 @@ class DepartmentServiceImplTest {
     @Mock
     private DepartmentMapper departmentMapper;
 
+    @Mock
+    private DepartmentNameIndex departmentNameIndex;
+
+    @Mock
+    private DepartmentListSnapshots listSnapshots;
+
+    @Mock
+    private DepartmentChangeFeed changeFeed;
+
+    @Mock
+    private DepartmentImporter importer;
+
+    @Mock
+    private DepartmentExporter exporter;
+
     @InjectMocks
     private DepartmentServiceImpl departmentService;
 
@@ -42,21 +80,35 @@ class DepartmentServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        departmentService = new DepartmentServiceImpl(departmentRepository, departmentMapper);
+        departmentService = new DepartmentServiceImpl(departmentRepository, departmentMapper, departmentNameIndex, listSnapshots, changeFeed, importer, exporter);
         department = new Department();
         department.setId(1L);
         department.setName("Test Department");
         departmentInfo = new DepartmentInfo();
         departmentInfo.setId(1L);
         departmentInfo.setName("Test Department");
-        lenient().when(departmentMapper.toEntity(any())).thenAnswer(invocation -> {
+        lenient().when(departmentMapper.toNewEntity(any())).thenAnswer(invocation -> {
             DepartmentInfo info = invocation.getArgument(0);
             if (info == null) return null;
             Department dep = new Department();
-            dep.setId(info.getId());
             dep.setName(info.getName());
             return dep;
         });
+        lenient().when(departmentMapper.toNewEntities(any())).thenAnswer(invocation -> {
+            List<DepartmentInfo> infos = invocation.getArgument(0);
+            List<Department> deps = new ArrayList<>(infos.size());
+            for (DepartmentInfo info : infos) {
+                Department dep = new Department();
+                dep.setName(info.getName());
+                deps.add(dep);
+            }
+            return deps;
+        });
+        lenient().doAnswer(invocation -> {
+            DepartmentInfo info = invocation.getArgument(0);
+            invocation.<Department>getArgument(1).setName(info.getName());
+            return null;
+        }).when(departmentMapper).updateEntity(any(), any());
         lenient().when(departmentMapper.toDto(any())).thenAnswer(invocation -> {
             Department dep = invocation.getArgument(0);
             if (dep == null) return null;
@@ -79,46 +131,77 @@ class DepartmentServiceImplTest {
     class GetCardTests {
         @Test
         void shouldReturnDepartmentInfo() {
-            when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
+            when(departmentRepository.findCardById(1L)).thenReturn(Optional.of(departmentInfo));
 
             DepartmentInfo result = departmentService.getCard(1L);
 
             assertNotNull(result);
             assertEquals(1L, result.getId());
             assertEquals("Test Department", result.getName());
-            verify(departmentRepository).findById(1L);
+            verify(departmentRepository).findCardById(1L);
         }
 
         @Test
         void shouldThrowException_WhenIdIsNull() {
-            assertThrows(IllegalArgumentException.class, () -> departmentService.getCard(null));
-            assertThrows(IllegalArgumentException.class, () -> departmentService.deleteCard(null));
-            verify(departmentRepository, never()).findById(any());
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getCard(null));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.deleteCard(null));
+            verify(departmentRepository, never()).findCardById(any());
         }
 
         @Test
         void shouldThrowException_WhenDepartmentNotFound() {
-            when(departmentRepository.findById(1L)).thenReturn(Optional.empty());
+            when(departmentRepository.findCardById(1L)).thenReturn(Optional.empty());
 
             assertThrows(RuntimeException.class, () -> departmentService.getCard(1L));
-            verify(departmentRepository).findById(1L);
+            verify(departmentRepository).findCardById(1L);
+        }
+
+        @Test
+        void shouldThrowStacklessExceptions() {
+            when(departmentRepository.findCardById(1L)).thenReturn(Optional.empty());
+
+            DepartmentNotFoundException notFound = assertThrows(DepartmentNotFoundException.class,
+                    () -> departmentService.getCard(1L));
+            DepartmentValidationException invalid = assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.getCard(null));
+
+            assertEquals(0, notFound.getStackTrace().length);
+            assertEquals(0, invalid.getStackTrace().length);
+        }
+
+        @Test
+        void shouldFindCard() {
+            when(departmentRepository.findCardById(1L)).thenReturn(Optional.of(departmentInfo));
+
+            Optional<DepartmentInfo> result = departmentService.findCard(1L);
+
+            assertTrue(result.isPresent());
+            assertEquals("Test Department", result.get().getName());
+        }
+
+        @Test
+        void shouldReturnEmpty_WhenFindingMissingCard() {
+            when(departmentRepository.findCardById(1L)).thenReturn(Optional.empty());
+
+            assertTrue(departmentService.findCard(1L).isEmpty());
+            assertThrows(DepartmentValidationException.class, () -> departmentService.findCard(null));
         }
 
         @Test
         void shouldHandleBoundaryIds() {
             // Test with zero ID
-            when(departmentRepository.findById(0L)).thenReturn(Optional.of(department));
+            when(departmentRepository.findCardById(0L)).thenReturn(Optional.of(departmentInfo));
             DepartmentInfo result = departmentService.getCard(0L);
             assertNotNull(result);
             assertEquals(1L, result.getId());
-            verify(departmentRepository).findById(0L);
+            verify(departmentRepository).findCardById(0L);
 
             // Test with max long ID
-            when(departmentRepository.findById(Long.MAX_VALUE)).thenReturn(Optional.of(department));
+            when(departmentRepository.findCardById(Long.MAX_VALUE)).thenReturn(Optional.of(departmentInfo));
             result = departmentService.getCard(Long.MAX_VALUE);
             assertNotNull(result);
             assertEquals(1L, result.getId());
-            verify(departmentRepository).findById(Long.MAX_VALUE);
+            verify(departmentRepository).findCardById(Long.MAX_VALUE);
         }
     }
 
@@ -126,11 +209,9 @@ class DepartmentServiceImplTest {
     class GetAllCardsTests {
         @Test
         void shouldReturnListOfDepartmentInfo() {
-            Department department2 = new Department();
-            department2.setId(2L);
-            department2.setName("Test Department 2");
+            DepartmentInfo departmentInfo2 = new DepartmentInfo(2L, "Test Department 2", 0L, null);
 
-            when(departmentRepository.findAll()).thenReturn(Arrays.asList(department, department2));
+            when(departmentRepository.findAllCards()).thenReturn(Arrays.asList(departmentInfo, departmentInfo2));
 
             List<DepartmentInfo> result = departmentService.getAllCards();
 
@@ -140,27 +221,26 @@ class DepartmentServiceImplTest {
             assertEquals("Test Department", result.get(0).getName());
             assertEquals(2L, result.get(1).getId());
             assertEquals("Test Department 2", result.get(1).getName());
-            verify(departmentRepository).findAll();
+            verify(departmentRepository).findAllCards();
+            verify(departmentMapper, never()).toDto(any());
         }
 
         @Test
         void shouldReturnEmptyList_WhenNoDepartmentsExist() {
-            when(departmentRepository.findAll()).thenReturn(Collections.emptyList());
+            when(departmentRepository.findAllCards()).thenReturn(Collections.emptyList());
 
             List<DepartmentInfo> result = departmentService.getAllCards();
 
             assertNotNull(result);
             assertTrue(result.isEmpty());
-            verify(departmentRepository).findAll();
+            verify(departmentRepository).findAllCards();
         }
 
         @Test
         void shouldHandleDuplicateIds() {
-            Department department2 = new Department();
-            department2.setId(1L);
-            department2.setName("Test Department 2");
+            DepartmentInfo departmentInfo2 = new DepartmentInfo(1L, "Test Department 2", 0L, null);
 
-            when(departmentRepository.findAll()).thenReturn(Arrays.asList(department, department2));
+            when(departmentRepository.findAllCards()).thenReturn(Arrays.asList(departmentInfo, departmentInfo2));
 
             List<DepartmentInfo> result = departmentService.getAllCards();
 
@@ -170,7 +250,246 @@ class DepartmentServiceImplTest {
             assertEquals("Test Department", result.get(0).getName());
             assertEquals(1L, result.get(1).getId());
             assertEquals("Test Department 2", result.get(1).getName());
-            verify(departmentRepository).findAll();
+            verify(departmentRepository).findAllCards();
+        }
+    }
+
+    @Nested
+    class GetCardsPageTests {
+        @Test
+        void shouldReturnFirstPageWithNextCursor() {
+            DepartmentInfo departmentInfo2 = new DepartmentInfo(2L, "Test Department 2", 0L, null);
+            when(departmentRepository.findCardsByIdGreaterThan(eq(Long.MIN_VALUE), any(Limit.class)))
+                    .thenReturn(Arrays.asList(departmentInfo, departmentInfo2));
+
+            DepartmentPage page = departmentService.getCardsPage(null, 1);
+
+            assertEquals(1, page.getItems().size());
+            assertEquals(1L, page.getItems().get(0).getId());
+            assertNotNull(page.getNextCursor());
+            assertEquals(1L, DepartmentServiceImpl.decodeCursor(page.getNextCursor()));
+            verify(departmentRepository).findCardsByIdGreaterThan(Long.MIN_VALUE, Limit.of(2));
+        }
+
+        @Test
+        void shouldContinueAfterCursor() {
+            when(departmentRepository.findCardsByIdGreaterThan(eq(1L), any(Limit.class)))
+                    .thenReturn(Collections.emptyList());
+
+            DepartmentPage page = departmentService.getCardsPage(DepartmentServiceImpl.encodeCursor(1L), 10);
+
+            assertTrue(page.getItems().isEmpty());
+            assertNull(page.getNextCursor());
+            verify(departmentRepository).findCardsByIdGreaterThan(1L, Limit.of(11));
+        }
+
+        @Test
+        void shouldCapPageSize() {
+            when(departmentRepository.findCardsByIdGreaterThan(any(), any(Limit.class)))
+                    .thenReturn(List.of(departmentInfo));
+
+            DepartmentPage page = departmentService.getCardsPage(null, Integer.MAX_VALUE);
+
+            assertEquals(1, page.getItems().size());
+            assertNull(page.getNextCursor());
+            verify(departmentRepository).findCardsByIdGreaterThan(Long.MIN_VALUE,
+                    Limit.of(DepartmentServiceImpl.MAX_PAGE_SIZE + 1));
+        }
+
+        @Test
+        void shouldThrowException_WhenSizeIsNotPositive() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getCardsPage(null, 0));
+            verify(departmentRepository, never()).findCardsByIdGreaterThan(any(), any());
+        }
+
+        @Test
+        void shouldThrowException_WhenCursorIsInvalid() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getCardsPage("not a cursor", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getCardsPage("YWJj", 10));
+            verify(departmentRepository, never()).findCardsByIdGreaterThan(any(), any());
+        }
+    }
+
+    @Nested
+    class SearchCardsTests {
+        @Test
+        void shouldSearchByLowerCasedPrefixInNameOrder() {
+            when(departmentRepository.findCardsByNameLowerLike(any(), any(Sort.class), any(Limit.class)))
+                    .thenReturn(List.of(departmentInfo));
+
+            List<DepartmentInfo> result = departmentService.searchCards("Test", "prefix", "name", 10);
+
+            assertEquals(List.of(departmentInfo), result);
+            verify(departmentRepository).findCardsByNameLowerLike("test%", Sort.by("nameLower", "id"), Limit.of(10));
+        }
+
+        @Test
+        void shouldSearchByContainsInIdOrderWithCappedLimit() {
+            departmentService.searchCards("Dep", "contains", "id", Integer.MAX_VALUE);
+
+            verify(departmentRepository).findCardsByNameLowerLike("%dep%", Sort.by("id"),
+                    Limit.of(DepartmentServiceImpl.MAX_PAGE_SIZE));
+        }
+
+        @Test
+        void shouldEscapeLikeWildcards() {
+            assertEquals("100\\%\\_a\\\\%", DepartmentServiceImpl.namePattern("100%_A\\", "prefix"));
+        }
+
+        @Test
+        void shouldRejectInvalidSearches() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.searchCards(null, "prefix", "name", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.searchCards(" ", "prefix", "name", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.searchCards("a", "suffix", "name", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.searchCards("a", "prefix", "version", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.searchCards("a", "prefix", "name", 0));
+            verify(departmentRepository, never()).findCardsByNameLowerLike(any(), any(), any());
+        }
+    }
+
+    @Nested
+    class SuggestCardsTests {
+        @Test
+        void shouldSuggestFromNameIndexWithCappedLimit() {
+            when(departmentNameIndex.suggest("Test", DepartmentServiceImpl.MAX_SUGGESTIONS)).thenReturn(List.of(departmentInfo));
+
+            List<DepartmentInfo> result = departmentService.suggestCards("Test", Integer.MAX_VALUE);
+
+            assertEquals(List.of(departmentInfo), result);
+            verifyNoInteractions(departmentRepository);
+        }
+
+        @Test
+        void shouldRejectInvalidSuggestions() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.suggestCards(null, 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.suggestCards(" ", 10));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.suggestCards("a", 0));
+            verify(departmentNameIndex, never()).suggest(any(), anyInt());
+        }
+
+        @Test
+        void shouldNotIndexFailedWrites() {
+            when(departmentRepository.existsById(1L)).thenReturn(false);
+
+            assertThrows(DepartmentNotFoundException.class, () -> departmentService.deleteCard(1L));
+
+            verify(departmentNameIndex, never()).remove(anyLong(), any());
+            verify(listSnapshots, never()).invalidate();
+        }
+    }
+
+    @Nested
+    class ChangesTests {
+        @SuppressWarnings("unchecked")
+        private List<DepartmentChange> recordedChanges() {
+            ArgumentCaptor<List<DepartmentChange>> changes = ArgumentCaptor.forClass(List.class);
+            verify(changeFeed).record(changes.capture());
+            return changes.getValue();
+        }
+
+        @Test
+        void shouldRecordCreatedDepartment() {
+            when(departmentRepository.save(any(Department.class))).thenReturn(department);
+
+            departmentService.createCard(departmentInfo);
+
+            DepartmentChange change = recordedChanges().get(0);
+            assertEquals(DepartmentChange.Type.CREATED, change.getType());
+            assertEquals(1L, change.getDepartmentId());
+            assertEquals("Test Department", change.getName());
+        }
+
+        @Test
+        void shouldRecordTombstone_WhenDepartmentIsDeleted() {
+            when(departmentRepository.existsById(1L)).thenReturn(true);
+
+            departmentService.deleteCard(1L);
+
+            DepartmentChange change = recordedChanges().get(0);
+            assertEquals(DepartmentChange.Type.DELETED, change.getType());
+            assertEquals(1L, change.getDepartmentId());
+            assertNull(change.getName());
+        }
+
+        @Test
+        void shouldRecordEveryUpdateOfBatch() {
+            departmentInfo.setName("Renamed");
+            DepartmentInfo second = new DepartmentInfo(2L, "Second", null, null);
+            Department department2 = new Department();
+            department2.setId(2L);
+            when(departmentRepository.findAllById(any())).thenReturn(List.of(department, department2));
+
+            departmentService.updateCards(List.of(departmentInfo, second));
+
+            assertEquals(List.of("Renamed", "Second"), recordedChanges().stream().map(DepartmentChange::getName).toList());
+        }
+
+        @Test
+        void shouldNotRecordFailedWrites() {
+            when(departmentRepository.updateNameById(eq(1L), any(), any())).thenReturn(0);
+
+            assertThrows(DepartmentNotFoundException.class, () -> departmentService.updateCard(departmentInfo));
+
+            verify(changeFeed, never()).record(anyList());
+        }
+
+        @Test
+        void shouldWaitOnFeedWithCappedLimit() {
+            CompletableFuture<List<DepartmentChangeInfo>> changes = CompletableFuture.completedFuture(List.of());
+            when(changeFeed.await(5L, DepartmentServiceImpl.MAX_PAGE_SIZE, Duration.ofSeconds(10))).thenReturn(changes);
+
+            assertSame(changes, departmentService.getChanges(5L, Integer.MAX_VALUE, 10));
+        }
+
+        @Test
+        void shouldRejectInvalidChangeRequests() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getChanges(-1L, 10, 0));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getChanges(0L, 0, 0));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.getChanges(0L, 10, -1));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.getChanges(0L, 10, DepartmentServiceImpl.MAX_CHANGE_WAIT_SECONDS + 1));
+            verifyNoInteractions(changeFeed);
+        }
+    }
+
+    @Nested
+    class ImportCardsTests {
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldInsertChunksLikeCreateCards() {
+            DepartmentImportReport report = new DepartmentImportReport();
+            Reader reader = new StringReader("name\nSales\n");
+            ArgumentCaptor<Function<List<DepartmentInfo>, List<Long>>> insert = ArgumentCaptor.forClass(Function.class);
+            when(importer.importCards(same(reader), eq("csv"), insert.capture(), any())).thenReturn(report);
+            when(departmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Department> departments = invocation.getArgument(0);
+                departments.get(0).setId(10L);
+                return departments;
+            });
+
+            assertSame(report, departmentService.importCards(reader, "csv", progress -> {
+            }));
+            List<Long> ids = insert.getValue().apply(List.of(new DepartmentInfo(null, "Sales", null, null)));
+
+            assertEquals(List.of(10L), ids);
+            verify(changeFeed).record(anyList());
+            verify(departmentNameIndex).put(anyLong(), eq(10L), eq("Sales"));
+            verify(listSnapshots).invalidate();
+        }
+    }
+
+    @Nested
+    class ForEachCardTests {
+        @Test
+        void shouldPassEveryCardToConsumer() {
+            DepartmentInfo departmentInfo2 = new DepartmentInfo(2L, "Test Department 2", 0L, null);
+            when(departmentRepository.streamAllCards()).thenReturn(Stream.of(departmentInfo, departmentInfo2));
+
+            List<DepartmentInfo> result = new ArrayList<>();
+            departmentService.forEachCard(result::add);
+
+            assertEquals(List.of(departmentInfo, departmentInfo2), result);
+            verify(departmentMapper, never()).toDto(any());
         }
     }
 
@@ -188,11 +507,13 @@ class DepartmentServiceImplTest {
             Long id = departmentService.createCard(departmentInfo);
             assertNotNull(id);
             assertEquals(1L, id);
+            verify(departmentNameIndex).put(anyLong(), eq(1L), eq("Test Department"));
+            verify(listSnapshots).invalidate();
         }
 
         @Test
         void shouldThrowException_WhenDepartmentInfoIsNull() {
-            assertThrows(IllegalArgumentException.class, () -> {
+            assertThrows(DepartmentValidationException.class, () -> {
                 departmentService.createCard(null);
             });
         }
@@ -201,12 +522,12 @@ class DepartmentServiceImplTest {
         void shouldThrowException_WhenNameIsInvalid() {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setName(null);
-            assertThrows(IllegalArgumentException.class, () -> {
+            assertThrows(DepartmentValidationException.class, () -> {
                 departmentService.createCard(departmentInfo);
             });
 
             departmentInfo.setName("");
-            assertThrows(IllegalArgumentException.class, () -> {
+            assertThrows(DepartmentValidationException.class, () -> {
                 departmentService.createCard(departmentInfo);
             });
         }
@@ -226,7 +547,7 @@ class DepartmentServiceImplTest {
         void shouldHandleSpecialCharactersAndLongNames() {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setName("a".repeat(256));
-            assertThrows(IllegalArgumentException.class, () -> {
+            assertThrows(DepartmentValidationException.class, () -> {
                 departmentService.createCard(departmentInfo);
             });
         }
@@ -235,24 +556,33 @@ class DepartmentServiceImplTest {
         void shouldThrowException_WhenNameIsDuplicate() {
             DepartmentInfo info = new DepartmentInfo();
             info.setName("Duplicate");
-            Department existingDepartment = new Department();
-            existingDepartment.setName("Duplicate");
-            existingDepartment.setId(1L);
+            when(departmentRepository.existsByName("Duplicate")).thenReturn(true);
 
-            when(departmentRepository.findAll()).thenReturn(List.of(existingDepartment));
-
-            IllegalArgumentException exception = assertThrows(
-                IllegalArgumentException.class,
+            DepartmentValidationException exception = assertThrows(
+                DepartmentValidationException.class,
                 () -> departmentService.createCard(info)
             );
             assertEquals("Department with this name already exists", exception.getMessage());
+            verify(departmentRepository, never()).findAll();
+            verify(departmentRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldReturnEmpty_WhenNameIsDuplicate() {
+            DepartmentInfo info = new DepartmentInfo();
+            info.setName("Duplicate");
+            when(departmentRepository.existsByName("Duplicate")).thenReturn(true);
+
+            assertTrue(departmentService.createCardIfAbsent(info).isEmpty());
+            verify(departmentRepository, never()).save(any());
+            verify(changeFeed, never()).record(any());
         }
 
         @Test
         void shouldThrowException_WhenNameIsEmpty() {
             DepartmentInfo info = new DepartmentInfo();
             info.setName("");
-            assertThrows(IllegalArgumentException.class, () -> departmentService.createCard(info));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.createCard(info));
         }
     }
 
@@ -263,22 +593,61 @@ class DepartmentServiceImplTest {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setId(1L);
             departmentInfo.setName("Updated Department");
-            Department department = new Department();
-            department.setId(1L);
-            department.setName("Updated Department");
 
-            when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-            when(departmentRepository.save(any(Department.class))).thenReturn(department);
-            when(departmentMapper.toEntity(departmentInfo)).thenReturn(department);
+            when(departmentRepository.updateNameById(eq(1L), eq("Updated Department"), any(Instant.class))).thenReturn(1);
+
+            assertDoesNotThrow(() -> departmentService.updateCard(departmentInfo));
+            verify(departmentRepository, never()).findById(any());
+            verify(departmentRepository, never()).save(any());
+            verify(departmentNameIndex).put(anyLong(), eq(1L), eq("Updated Department"));
+        }
+
+        @Test
+        void shouldUpdateDepartment_WhenVersionMatches() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Updated Department");
+            departmentInfo.setVersion(3L);
+
+            when(departmentRepository.updateNameByIdAndVersion(eq(1L), eq(3L), eq("Updated Department"), any(Instant.class)))
+                    .thenReturn(1);
 
             assertDoesNotThrow(() -> departmentService.updateCard(departmentInfo));
-            verify(departmentRepository).findById(1L);
-            verify(departmentRepository).save(any(Department.class));
+            verify(departmentRepository, never()).existsById(any());
+            verify(departmentRepository, never()).updateNameById(any(), any(), any());
+        }
+
+        @Test
+        void shouldThrowConflict_WhenVersionIsStale() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Updated Department");
+            departmentInfo.setVersion(3L);
+
+            when(departmentRepository.updateNameByIdAndVersion(eq(1L), eq(3L), eq("Updated Department"), any(Instant.class)))
+                    .thenReturn(0);
+            when(departmentRepository.existsById(1L)).thenReturn(true);
+
+            assertThrows(DepartmentConflictException.class, () -> departmentService.updateCard(departmentInfo));
+        }
+
+        @Test
+        void shouldThrowNotFound_WhenVersionedDepartmentDoesNotExist() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Updated Department");
+            departmentInfo.setVersion(3L);
+
+            when(departmentRepository.updateNameByIdAndVersion(eq(1L), eq(3L), eq("Updated Department"), any(Instant.class)))
+                    .thenReturn(0);
+            when(departmentRepository.existsById(1L)).thenReturn(false);
+
+            assertThrows(DepartmentNotFoundException.class, () -> departmentService.updateCard(departmentInfo));
         }
 
         @Test
         void shouldThrowException_WhenDepartmentInfoIsNull() {
-            assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(null));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(null));
         }
 
         @Test
@@ -286,7 +655,7 @@ class DepartmentServiceImplTest {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setId(null);
             departmentInfo.setName("Updated Department");
-            assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(departmentInfo));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(departmentInfo));
         }
 
         @Test
@@ -294,10 +663,10 @@ class DepartmentServiceImplTest {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setId(1L);
             departmentInfo.setName(null);
-            assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(departmentInfo));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(departmentInfo));
 
             departmentInfo.setName("");
-            assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(departmentInfo));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(departmentInfo));
         }
 
         @Test
@@ -306,11 +675,10 @@ class DepartmentServiceImplTest {
             departmentInfo.setId(1L);
             departmentInfo.setName("Updated Department");
 
-            when(departmentRepository.findById(1L)).thenReturn(Optional.empty());
+            when(departmentRepository.updateNameById(eq(1L), eq("Updated Department"), any(Instant.class))).thenReturn(0);
 
-            assertThrows(RuntimeException.class, () -> departmentService.updateCard(departmentInfo));
-            verify(departmentRepository).findById(1L);
-            verify(departmentRepository, never()).save(any());
+            assertThrows(DepartmentNotFoundException.class, () -> departmentService.updateCard(departmentInfo));
+            verify(departmentRepository, never()).existsById(any());
         }
 
         @Test
@@ -318,17 +686,11 @@ class DepartmentServiceImplTest {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setId(1L);
             departmentInfo.setName("Updated Department");
-            Department department = new Department();
-            department.setId(1L);
-            department.setName("Updated Department");
 
-            when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-            when(departmentRepository.save(any(Department.class))).thenThrow(new RuntimeException("Save failed"));
-            when(departmentMapper.toEntity(departmentInfo)).thenReturn(department);
+            when(departmentRepository.updateNameById(eq(1L), eq("Updated Department"), any(Instant.class)))
+                    .thenThrow(new RuntimeException("Update failed"));
 
             assertThrows(RuntimeException.class, () -> departmentService.updateCard(departmentInfo));
-            verify(departmentRepository).findById(1L);
-            verify(departmentRepository).save(any(Department.class));
         }
 
         @Test
@@ -336,7 +698,156 @@ class DepartmentServiceImplTest {
             DepartmentInfo departmentInfo = new DepartmentInfo();
             departmentInfo.setId(1L);
             departmentInfo.setName("a".repeat(256));
-            assertThrows(IllegalArgumentException.class, () -> departmentService.updateCard(departmentInfo));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.updateCard(departmentInfo));
+        }
+
+        @Test
+        void shouldThrowException_WhenNameBelongsToAnotherDepartment() {
+            DepartmentInfo departmentInfo = new DepartmentInfo();
+            departmentInfo.setId(1L);
+            departmentInfo.setName("Duplicate");
+
+            // The unique index on name rejects the rename; the controller maps this to 400
+            when(departmentRepository.updateNameById(eq(1L), eq("Duplicate"), any(Instant.class)))
+                    .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+            assertThrows(DataIntegrityViolationException.class, () -> departmentService.updateCard(departmentInfo));
+            verify(departmentRepository, never()).findAll();
+            verify(departmentRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    class BatchTests {
+        private DepartmentInfo card(Long id, String name) {
+            DepartmentInfo card = new DepartmentInfo();
+            card.setId(id);
+            card.setName(name);
+            return card;
+        }
+
+        @Test
+        void shouldCreateAllDepartmentsWithSingleUniquenessCheck() {
+            when(departmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Department> departments = invocation.getArgument(0);
+                long id = 10;
+                for (Department department : departments) {
+                    assertNull(department.getId());
+                    department.setId(id++);
+                }
+                return departments;
+            });
+
+            List<Long> ids = departmentService.createCards(List.of(card(99L, "First"), card(null, "Second")));
+
+            assertEquals(List.of(10L, 11L), ids);
+            verify(departmentRepository).existsByNameIn(Set.of("First", "Second"));
+            verify(departmentRepository, never()).existsByName(any());
+            verify(departmentRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldRejectCreateBatch_WhenNameAlreadyExists() {
+            when(departmentRepository.existsByNameIn(any())).thenReturn(true);
+
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.createCards(List.of(card(null, "First"))));
+            verify(departmentRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void shouldRejectCreateBatch_WhenNamesRepeatWithinBatch() {
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.createCards(List.of(card(null, "Same"), card(null, "Same"))));
+            verify(departmentRepository, never()).existsByNameIn(any());
+            verify(departmentRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void shouldRejectInvalidBatches() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.createCards(null));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.createCards(List.of()));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.createCards(
+                    Collections.nCopies(DepartmentServiceImpl.MAX_BATCH_SIZE + 1, card(null, "Name"))));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.createCards(Arrays.asList(card(null, "Name"), null)));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.createCards(List.of(card(null, " "))));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.createCards(List.of(card(null, "a".repeat(256)))));
+            verifyNoInteractions(departmentRepository);
+        }
+
+        @Test
+        void shouldUpdateLoadedDepartmentsInPlace() {
+            Department department2 = new Department();
+            department2.setId(2L);
+            department2.setName("Test Department 2");
+            when(departmentRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(department, department2));
+
+            departmentService.updateCards(List.of(card(1L, "Renamed 1"), card(2L, "Renamed 2")));
+
+            assertEquals("Renamed 1", department.getName());
+            assertEquals("Renamed 2", department2.getName());
+            verify(departmentRepository).existsByNameInAndIdNotIn(Set.of("Renamed 1", "Renamed 2"), Set.of(1L, 2L));
+            verify(departmentRepository, never()).findById(any());
+            verify(departmentRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldRejectUpdateBatch_WhenDepartmentIsMissing() {
+            when(departmentRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(department));
+
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> departmentService.updateCards(List.of(card(1L, "Renamed 1"), card(2L, "Renamed 2"))));
+            assertEquals("Department not found with id: [2]", exception.getMessage());
+            assertEquals("Test Department", department.getName());
+        }
+
+        @Test
+        void shouldRejectUpdateBatch_WhenNameBelongsToAnotherDepartment() {
+            when(departmentRepository.findAllById(Set.of(1L))).thenReturn(List.of(department));
+            when(departmentRepository.existsByNameInAndIdNotIn(Set.of("Taken"), Set.of(1L))).thenReturn(true);
+
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.updateCards(List.of(card(1L, "Taken"))));
+            assertEquals("Test Department", department.getName());
+        }
+
+        @Test
+        void shouldRejectUpdateBatch_WhenIdsOrNamesRepeat() {
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.updateCards(List.of(card(1L, "A"), card(1L, "B"))));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.updateCards(List.of(card(1L, "A"), card(2L, "A"))));
+            assertThrows(DepartmentValidationException.class,
+                    () -> departmentService.updateCards(List.of(card(null, "A"))));
+            verifyNoInteractions(departmentRepository);
+        }
+
+        @Test
+        void shouldDeleteAllDepartmentsInOneStatement() {
+            when(departmentRepository.countByIdIn(Set.of(1L, 2L))).thenReturn(2L);
+
+            departmentService.deleteCards(List.of(1L, 2L, 2L));
+
+            verify(departmentRepository).deleteAllByIdInBatch(Set.of(1L, 2L));
+            verify(departmentRepository, never()).deleteById(any());
+        }
+
+        @Test
+        void shouldRejectDeleteBatch_WhenDepartmentIsMissing() {
+            when(departmentRepository.countByIdIn(Set.of(1L, 2L))).thenReturn(1L);
+
+            assertThrows(RuntimeException.class, () -> departmentService.deleteCards(List.of(1L, 2L)));
+            verify(departmentRepository, never()).deleteAllByIdInBatch(any());
+        }
+
+        @Test
+        void shouldRejectDeleteBatch_WhenIdIsNull() {
+            assertThrows(DepartmentValidationException.class, () -> departmentService.deleteCards(Arrays.asList(1L, null)));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.deleteCards(List.of()));
+            verifyNoInteractions(departmentRepository);
         }
     }
 
@@ -351,11 +862,12 @@ class DepartmentServiceImplTest {
 
             verify(departmentRepository).existsById(1L);
             verify(departmentRepository).deleteById(1L);
+            verify(departmentNameIndex).remove(anyLong(), eq(1L));
         }
 
         @Test
         void shouldThrowException_WhenIdIsNull() {
-            assertThrows(IllegalArgumentException.class, () -> departmentService.deleteCard(null));
+            assertThrows(DepartmentValidationException.class, () -> departmentService.deleteCard(null));
             verify(departmentRepository, never()).existsById(any());
             verify(departmentRepository, never()).deleteById(any());
         }
@@ -402,7 +914,7 @@ class DepartmentServiceImplTest {
         Department department = new Department();
         department.setName("Test Department");
 
-        when(departmentMapper.toEntity(departmentInfo)).thenReturn(department);
+        when(departmentMapper.toNewEntity(departmentInfo)).thenReturn(department);
         when(departmentRepository.save(department)).thenThrow(new DataIntegrityViolationException("Department already exists"));
 
         assertThrows(DataIntegrityViolationException.class, () -> departmentService.createCard(departmentInfo));
@@ -412,7 +924,7 @@ class DepartmentServiceImplTest {
     void shouldHandleSpecialCharactersAndLongNames() {
         DepartmentInfo departmentInfo = new DepartmentInfo();
         departmentInfo.setName("a".repeat(256));
-        assertThrows(IllegalArgumentException.class, () -> {
+        assertThrows(DepartmentValidationException.class, () -> {
             departmentService.createCard(departmentInfo);
         });
     }